@@ -0,0 +1,62 @@
+package jinzo.worldy.client.Models;
+
+public final class DeathRecord {
+    private final long timestamp;
+    private final String server;
+    private final String dimension;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final String cause;
+
+    public DeathRecord(long timestamp, String server, String dimension, double x, double y, double z, String cause) {
+        this.timestamp = timestamp;
+        this.server = server;
+        this.dimension = dimension;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.cause = cause;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public String getCause() {
+        return cause;
+    }
+
+    @Override
+    public String toString() {
+        return "DeathRecord{" +
+                "timestamp=" + timestamp +
+                ", server='" + server + '\'' +
+                ", dimension='" + dimension + '\'' +
+                ", x=" + x +
+                ", y=" + y +
+                ", z=" + z +
+                ", cause='" + cause + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package jinzo.worldy.client.Models;
+
+public final class Waypoint {
+    private final String name;
+    private final String server;
+    private final String dimension;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final long createdAt;
+
+    public Waypoint(String name, String server, String dimension, double x, double y, double z, long createdAt) {
+        this.name = name;
+        this.server = server;
+        this.dimension = dimension;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.createdAt = createdAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public double squaredDistanceTo(double px, double py, double pz) {
+        double dx = x - px, dy = y - py, dz = z - pz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public String toString() {
+        return "Waypoint{" +
+                "name='" + name + '\'' +
+                ", server='" + server + '\'' +
+                ", dimension='" + dimension + '\'' +
+                ", x=" + x +
+                ", y=" + y +
+                ", z=" + z +
+                '}';
+    }
+}
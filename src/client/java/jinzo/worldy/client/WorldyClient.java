@@ -1,33 +1,60 @@
 package jinzo.worldy.client;
 
+import jinzo.worldy.client.commands.SessionCommand;
 import jinzo.worldy.client.commands.StafflistCommand;
 import jinzo.worldy.client.commands.WaypointCommand;
+import jinzo.worldy.client.commands.WhoCommand;
+import jinzo.worldy.client.commands.WorldyCommand;
+import jinzo.worldy.client.utils.NotificationQueue;
+import jinzo.worldy.client.utils.PathfindingManager;
+import jinzo.worldy.client.utils.PersistenceQueue;
+import jinzo.worldy.client.utils.PlayerRoster;
+import jinzo.worldy.client.utils.SessionHistory;
+import jinzo.worldy.client.utils.StaffProximity;
 import jinzo.worldy.client.utils.StafflistHelper;
-import jinzo.worldy.client.utils.WaypointManager;
+import jinzo.worldy.client.utils.TickScheduler;
+import jinzo.worldy.client.utils.WarmStart;
+import jinzo.worldy.client.utils.WaypointRenderer;
 import me.shedaniel.autoconfig.AutoConfig;
+import me.shedaniel.autoconfig.ConfigHolder;
 import me.shedaniel.autoconfig.serializer.JanksonConfigSerializer;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ServerInfo;
-import net.minecraft.text.Text;
+import net.minecraft.util.ActionResult;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.UUID;
 
 public class WorldyClient implements ClientModInitializer {
 
-    private static final Set<String> previousPlayers = new HashSet<>();
     private static volatile boolean isTargetServer = false;
+    // Cached so hot paths skip the AutoConfig holder lookup; replaced whenever the config is saved or reloaded
+    private static volatile WorldyConfig config;
 
     @Override
     public void onInitializeClient() {
-        AutoConfig.register(WorldyConfig.class, JanksonConfigSerializer::new);
+        ConfigHolder<WorldyConfig> holder = AutoConfig.register(WorldyConfig.class, JanksonConfigSerializer::new);
+        config = holder.getConfig();
+        holder.registerSaveListener((h, saved) -> {
+            config = saved;
+            return ActionResult.PASS;
+        });
+        holder.registerLoadListener((h, loaded) -> {
+            config = loaded;
+            return ActionResult.PASS;
+        });
+
+        TickScheduler.init();
 
         ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> {
             dispatcher.register(StafflistCommand.register());
+            dispatcher.register(WorldyCommand.register());
+            dispatcher.register(SessionCommand.registerSeen());
+            dispatcher.register(SessionCommand.registerPopulation());
+            dispatcher.register(WhoCommand.register());
             WaypointCommand.register();
         });
 
@@ -42,6 +69,7 @@ public class WorldyClient implements ClientModInitializer {
                     isTargetServer = false;
                 }
 
+                NotificationQueue.onConnected();
                 if (isTargetServer) {
                     StafflistHelper.loadStaffListOnJoin(client);
                 }
@@ -52,28 +80,41 @@ public class WorldyClient implements ClientModInitializer {
         });
 
         ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
-            previousPlayers.clear();
+            StafflistHelper.cancelPending();
+            SessionHistory.closeAll(System.currentTimeMillis());
+            SessionHistory.flush();
+            PlayerRoster.clear();
+            NotificationQueue.clear();
+            StaffProximity.clear();
             isTargetServer = false;
         });
 
-        ClientTickEvents.END_CLIENT_TICK.register(client -> {
-            if (!isTargetServer) return;
-
-            if (client.player == null || client.getNetworkHandler() == null) return;
-
-            Set<String> currentPlayers = new HashSet<>();
-            client.getNetworkHandler().getPlayerList().forEach(entry -> currentPlayers.add(entry.getProfile().getName()));
+        PlayerRoster.addListener(new PlayerRoster.Listener() {
+            @Override
+            public void onJoin(UUID uuid, String name) {
+                if (isTargetServer) SessionHistory.onJoin(uuid, name, System.currentTimeMillis());
+                if (isTargetServer && getConfig().general.displayJoinMessages) NotificationQueue.enqueueJoin(name);
+            }
 
-            for (String playerName : previousPlayers) {
-                if (!currentPlayers.contains(playerName) && getConfig().general.displayLogoutMessages) {
-                    client.player.sendMessage(Text.literal("§7[§c-§7] " + playerName), false);
-                }
+            @Override
+            public void onLeave(UUID uuid, String name) {
+                if (isTargetServer) SessionHistory.onLeave(uuid, System.currentTimeMillis());
+                if (isTargetServer && getConfig().general.displayLogoutMessages) NotificationQueue.enqueueLeave(name);
             }
+        });
+        NotificationQueue.init();
+        SessionHistory.init();
+        StaffProximity.init();
+
+        WaypointRenderer.init();
+        PathfindingManager.init();
 
-            previousPlayers.clear();
-            previousPlayers.addAll(currentPlayers);
+        WarmStart.start();
 
-            if (WaypointManager.isActive() && getConfig().waypoint.enabled) WaypointManager.spawnPathParticles(getConfig().waypoint.pathLength);
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
+            SessionHistory.closeAll(System.currentTimeMillis());
+            SessionHistory.flush();
+            PersistenceQueue.flushNow();
         });
 
         MinecraftClient mc = MinecraftClient.getInstance();
@@ -85,7 +126,12 @@ public class WorldyClient implements ClientModInitializer {
         }
     }
 
+    public static boolean isTargetServer() {
+        return isTargetServer;
+    }
+
     public static WorldyConfig getConfig() {
-        return AutoConfig.getConfigHolder(WorldyConfig.class).getConfig();
+        WorldyConfig cached = config;
+        return cached != null ? cached : AutoConfig.getConfigHolder(WorldyConfig.class).getConfig();
     }
 }
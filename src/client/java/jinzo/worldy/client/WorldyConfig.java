@@ -11,10 +11,19 @@ public class WorldyConfig implements ConfigData {
     public GeneralSettings general = new GeneralSettings();
     @ConfigEntry.Gui.CollapsibleObject
     public WaypointSettings waypoint = new WaypointSettings();
+    @ConfigEntry.Gui.CollapsibleObject
+    public StaffSettings staff = new StaffSettings();
 
     public static class GeneralSettings {
         @ConfigEntry.Gui.Tooltip
         public boolean displayLogoutMessages = true;
+
+        @ConfigEntry.Gui.Tooltip
+        public boolean displayJoinMessages = false;
+
+        @ConfigEntry.Gui.Tooltip
+        @ConfigEntry.BoundedDiscrete(min = 1, max = 16)
+        public int nameLookupConcurrency = 4;
     }
 
     public static class WaypointSettings {
@@ -22,17 +31,34 @@ public class WorldyConfig implements ConfigData {
         public boolean enabled = true;
 
         @ConfigEntry.Gui.Tooltip
-        @ConfigEntry.BoundedDiscrete(min = 1, max = 40)
+        @ConfigEntry.BoundedDiscrete(min = 1, max = 256)
         public int pathLength = 10;
 
+        // Legacy storage for the last death, only read to migrate it to config/worldy/last_death.bin
+        @ConfigEntry.Gui.Excluded
         public double lastDeathX = 0;
+        @ConfigEntry.Gui.Excluded
         public double lastDeathY = 0;
+        @ConfigEntry.Gui.Excluded
         public double lastDeathZ = 0;
     }
 
+    public static class StaffSettings {
+        @ConfigEntry.Gui.Tooltip
+        public boolean proximityAlerts = true;
+
+        @ConfigEntry.Gui.Tooltip
+        @ConfigEntry.BoundedDiscrete(min = 4, max = 128)
+        public int alertRadius = 32;
+    }
+
     @Override
     public void validatePostLoad() {
+        if (general.nameLookupConcurrency < 1) general.nameLookupConcurrency = 1;
+        if (general.nameLookupConcurrency > 16) general.nameLookupConcurrency = 16;
         if (waypoint.pathLength < 1) waypoint.pathLength = 1;
-        if (waypoint.pathLength > 40) waypoint.pathLength = 40;
+        if (waypoint.pathLength > 256) waypoint.pathLength = 256;
+        if (staff.alertRadius < 4) staff.alertRadius = 4;
+        if (staff.alertRadius > 128) staff.alertRadius = 128;
     }
 }
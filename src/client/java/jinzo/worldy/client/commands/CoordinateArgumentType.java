@@ -0,0 +1,49 @@
+package jinzo.worldy.client.commands;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A single coordinate for client commands: an absolute number, {@code ~} for the player's own coordinate, or
+ * {@code ~<offset>} relative to it.
+ */
+public final class CoordinateArgumentType implements ArgumentType<CoordinateArgumentType.Coordinate> {
+
+    private static final Collection<String> EXAMPLES = List.of("0", "~", "~-5", "12.5");
+
+    public record Coordinate(boolean relative, double value) {
+        public double resolve(double base) {
+            return relative ? base + value : value;
+        }
+    }
+
+    private CoordinateArgumentType() {}
+
+    public static CoordinateArgumentType coordinate() {
+        return new CoordinateArgumentType();
+    }
+
+    public static Coordinate getCoordinate(CommandContext<?> ctx, String name) {
+        return ctx.getArgument(name, Coordinate.class);
+    }
+
+    @Override
+    public Coordinate parse(StringReader reader) throws CommandSyntaxException {
+        if (reader.canRead() && reader.peek() == '~') {
+            reader.skip();
+            boolean hasOffset = reader.canRead() && reader.peek() != ' ';
+            return new Coordinate(true, hasOffset ? reader.readDouble() : 0);
+        }
+        return new Coordinate(false, reader.readDouble());
+    }
+
+    @Override
+    public Collection<String> getExamples() {
+        return EXAMPLES;
+    }
+}
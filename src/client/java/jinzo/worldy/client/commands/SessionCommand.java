@@ -0,0 +1,124 @@
+package jinzo.worldy.client.commands;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import jinzo.worldy.client.utils.SessionHistory;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.argument;
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+public final class SessionCommand {
+
+    private static final String SPARKS = "▁▂▃▄▅▆▇█";
+    private static final int RECENT_SESSIONS = 3;
+    private static final DateTimeFormatter SESSION_TIME = DateTimeFormatter.ofPattern("MM-dd HH:mm");
+
+    public static LiteralArgumentBuilder<FabricClientCommandSource> registerSeen() {
+        return literal("seen")
+                .then(argument("player", StringArgumentType.word())
+                        .executes(ctx -> {
+                            MinecraftClient client = MinecraftClient.getInstance();
+                            if (client.player == null) return 0;
+
+                            String name = StringArgumentType.getString(ctx, "player");
+                            SessionHistory.PlayerStats stats = SessionHistory.lookup(name);
+                            if (stats == null) {
+                                client.player.sendMessage(Text.literal("§cNo sessions recorded for " + name), false);
+                                return 0;
+                            }
+
+                            long now = System.currentTimeMillis();
+                            if (stats.isOnline()) {
+                                client.player.sendMessage(Text.literal("§a" + stats.name() + " §7is online, for §b"
+                                        + formatDuration(now - stats.onlineSince())), false);
+                            } else {
+                                client.player.sendMessage(Text.literal("§e" + stats.name() + " §7was last seen §b"
+                                        + formatDuration(now - stats.lastSeen()) + " §7ago"), false);
+                            }
+                            long total = stats.totalOnlineMs() + (stats.isOnline() ? now - stats.onlineSince() : 0);
+                            client.player.sendMessage(Text.literal("§7Time online while tracked: §b" + formatDuration(total)), false);
+
+                            for (SessionHistory.Session session : SessionHistory.recentSessions(name, RECENT_SESSIONS)) {
+                                client.player.sendMessage(Text.literal("§8- §7" + SESSION_TIME.format(
+                                        Instant.ofEpochMilli(session.start()).atZone(ZoneId.systemDefault()))
+                                        + " §7for §b" + formatDuration(session.end() - session.start())), false);
+                            }
+                            return 1;
+                        }));
+    }
+
+    public static LiteralArgumentBuilder<FabricClientCommandSource> registerPopulation() {
+        return literal("population")
+                .executes(ctx -> showPopulation(12))
+                .then(argument("hours", IntegerArgumentType.integer(1, SessionHistory.POPULATION_MINUTES / 60))
+                        .executes(ctx -> showPopulation(IntegerArgumentType.getInteger(ctx, "hours"))));
+    }
+
+    private static int showPopulation(int hours) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null) return 0;
+
+        int[] samples = SessionHistory.population(hours * 60, System.currentTimeMillis());
+
+        // One bar per bucket; long ranges are folded so the graph stays on a single chat line
+        int buckets = Math.min(hours, 24);
+        int perBucket = samples.length / buckets;
+        int offset = samples.length - buckets * perBucket;
+        int[] average = new int[buckets];
+        int max = 0;
+        int min = Integer.MAX_VALUE;
+        boolean any = false;
+        for (int b = 0; b < buckets; b++) {
+            long sum = 0;
+            int count = 0;
+            for (int i = offset + b * perBucket; i < offset + (b + 1) * perBucket; i++) {
+                if (samples[i] < 0) continue;
+                sum += samples[i];
+                count++;
+                max = Math.max(max, samples[i]);
+                min = Math.min(min, samples[i]);
+            }
+            average[b] = count == 0 ? -1 : (int) (sum / count);
+            any |= count > 0;
+        }
+
+        if (!any) {
+            client.player.sendMessage(Text.literal("§cNo population data for the last " + hours + "h"), false);
+            return 0;
+        }
+
+        StringBuilder graph = new StringBuilder();
+        for (int avg : average) {
+            if (avg < 0) {
+                graph.append("§8·");
+            } else {
+                int level = max == 0 ? 0 : avg * (SPARKS.length() - 1) / max;
+                graph.append("§b").append(SPARKS.charAt(level));
+            }
+        }
+
+        client.player.sendMessage(Text.literal("§6=== Population, last " + hours + "h ==="), false);
+        client.player.sendMessage(Text.literal(graph.toString()), false);
+        client.player.sendMessage(Text.literal("§7Min: §b" + min + " §7Max: §b" + max), false);
+        return 1;
+    }
+
+    private static String formatDuration(long millis) {
+        long minutes = Math.max(0, millis) / 60_000L;
+        if (minutes < 1) return "<1m";
+        if (minutes < 60) return minutes + "m";
+        long hours = minutes / 60;
+        if (hours < 48) return hours + "h " + (minutes % 60) + "m";
+        return (hours / 24) + "d " + (hours % 24) + "h";
+    }
+
+    private SessionCommand() {}
+}
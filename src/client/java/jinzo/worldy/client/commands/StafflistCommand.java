@@ -1,7 +1,10 @@
 package jinzo.worldy.client.commands;
 
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import jinzo.worldy.client.Models.Staff;
+import jinzo.worldy.client.utils.NameIndex;
+import jinzo.worldy.client.utils.PlayerRoster;
 import jinzo.worldy.client.utils.StafflistHelper;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.minecraft.client.MinecraftClient;
@@ -11,13 +14,18 @@ import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.argument;
 import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
 
 public final class StafflistCommand {
 
+    private static final int FIND_LIMIT = 10;
+
     public static LiteralArgumentBuilder<FabricClientCommandSource> register() {
         return literal("stafflist")
                 .executes(ctx -> {
@@ -33,7 +41,40 @@ public final class StafflistCommand {
 
                     sendStaffList(client, data);
                     return 1;
-                });
+                })
+                .then(literal("find")
+                        .then(argument("query", StringArgumentType.greedyString())
+                                .executes(ctx -> findStaff(StringArgumentType.getString(ctx, "query")))));
+    }
+
+    private static int findStaff(String query) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null) return 0;
+
+        List<NameIndex.Match> matches = StafflistHelper.searchStaff(query, FIND_LIMIT);
+        if (matches.isEmpty()) {
+            client.player.sendMessage(Text.literal("§cNo staff member matches '" + query + "'").formatted(Formatting.RED), false);
+            return 0;
+        }
+
+        Map<UUID, String> roles = new HashMap<>();
+        Map<UUID, Staff> members = new HashMap<>();
+        for (Map.Entry<String, List<Staff>> entry : StafflistHelper.getCachedStaffData().entrySet()) {
+            for (Staff member : entry.getValue()) {
+                roles.putIfAbsent(member.getUuid(), entry.getKey());
+                members.putIfAbsent(member.getUuid(), member);
+            }
+        }
+
+        client.player.sendMessage(Text.literal("§6=== Staff matching '" + query + "' ===").formatted(Formatting.GOLD), false);
+        for (NameIndex.Match match : matches) {
+            Staff member = members.get(match.uuid());
+            if (member == null) continue;
+            String role = roles.get(match.uuid());
+            MutableText line = Text.literal(role.substring(0, 1).toUpperCase() + role.substring(1) + ": ").formatted(Formatting.YELLOW);
+            client.player.sendMessage(line.append(createHoverablePlayerText(member)), false);
+        }
+        return 1;
     }
 
     private static void sendStaffList(MinecraftClient client, Map<String, List<Staff>> staffData) {
@@ -48,6 +89,8 @@ public final class StafflistCommand {
 
         boolean hasUnknownPlayers = false;
         boolean hasOfflinePlayers = false;
+        int totalStaff = 0;
+        int onlineCount = 0;
 
         for (Map.Entry<String, List<Staff>> entry : staffData.entrySet()) {
             String role = entry.getKey();
@@ -59,16 +102,18 @@ public final class StafflistCommand {
             MutableText roleMessage = createRoleMessage(displayRole, staffMembers);
             if (client.player != null) client.player.sendMessage(roleMessage, false);
 
-            if (staffMembers.stream().anyMatch(Staff::isUnknown)) hasUnknownPlayers = true;
-            if (staffMembers.stream().anyMatch(m -> !isPlayerOnline(m.getDisplayName(), client))) hasOfflinePlayers = true;
+            for (Staff member : staffMembers) {
+                totalStaff++;
+                if (isPlayerOnline(member)) {
+                    onlineCount++;
+                } else {
+                    hasOfflinePlayers = true;
+                }
+                // An online player's name is known from the tab list even if the lookup has not resolved yet
+                if (member.isUnknown() && !isPlayerOnline(member)) hasUnknownPlayers = true;
+            }
         }
 
-        int totalStaff = staffData.values().stream().mapToInt(List::size).sum();
-        long onlineCount = staffData.values().stream()
-                .flatMap(List::stream)
-                .filter(member -> isPlayerOnline(member.getDisplayName(), client))
-                .count();
-
         if (client.player != null) {
             client.player.sendMessage(
                     Text.literal("§7Total staff members: §b" + totalStaff + " §7(§a" + onlineCount + " online§7)").formatted(Formatting.GRAY),
@@ -85,19 +130,16 @@ public final class StafflistCommand {
         }
     }
 
-    private static boolean isPlayerOnline(String playerName, MinecraftClient client) {
-        if (client.getNetworkHandler() == null) return false;
-        return client.getNetworkHandler().getPlayerList().stream()
-                .anyMatch(entry -> entry.getProfile().getName().equals(playerName));
+    private static boolean isPlayerOnline(Staff member) {
+        return PlayerRoster.isOnline(member.getUuid());
     }
 
     private static MutableText createRoleMessage(String displayRole, List<Staff> staffMembers) {
         MutableText baseMessage = Text.literal(displayRole + ": ").formatted(Formatting.YELLOW);
-        MinecraftClient client = MinecraftClient.getInstance();
 
         for (int i = 0; i < staffMembers.size(); i++) {
             Staff member = staffMembers.get(i);
-            MutableText playerText = createHoverablePlayerText(member, client);
+            MutableText playerText = createHoverablePlayerText(member);
 
             if (i > 0) baseMessage.append(Text.literal(", ").formatted(Formatting.GRAY));
             baseMessage.append(playerText);
@@ -105,11 +147,13 @@ public final class StafflistCommand {
         return baseMessage;
     }
 
-    private static MutableText createHoverablePlayerText(Staff member, MinecraftClient client) {
-        boolean isOnline = isPlayerOnline(member.getDisplayName(), client);
+    private static MutableText createHoverablePlayerText(Staff member) {
+        boolean isOnline = isPlayerOnline(member);
+        String onlineName = isOnline ? PlayerRoster.getName(member.getUuid()) : null;
+        boolean isUnknown = member.isUnknown() && onlineName == null;
         Formatting color;
 
-        if (member.isUnknown()) {
+        if (isUnknown) {
             color = Formatting.RED;
         } else {
             color = isOnline ? Formatting.GREEN : Formatting.GRAY;
@@ -118,11 +162,11 @@ public final class StafflistCommand {
         MutableText hoverText = Text.literal("UUID: " + member.getUuid().toString()).formatted(Formatting.GRAY);
         hoverText.append(Text.literal("\nStatus: " + (isOnline ? "Online" : "Offline")).formatted(isOnline ? Formatting.GREEN : Formatting.YELLOW));
 
-        if (member.isUnknown()) {
+        if (isUnknown) {
             hoverText.append(Text.literal("\nNote: Username could not be resolved").formatted(Formatting.RED));
         }
 
-        String playerName = member.getDisplayName();
+        String playerName = member.isUnknown() && onlineName != null ? onlineName : member.getDisplayName();
         String runCommand = "/res " + playerName;
 
         return Text.literal(playerName)
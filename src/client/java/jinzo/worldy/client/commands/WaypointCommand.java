@@ -1,34 +1,86 @@
 package jinzo.worldy.client.commands;
 
-import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import jinzo.worldy.client.Models.DeathRecord;
+import jinzo.worldy.client.Models.Waypoint;
+import jinzo.worldy.client.utils.DeathJournal;
 import jinzo.worldy.client.utils.WaypointManager;
+import jinzo.worldy.client.utils.WaypointStore;
+import jinzo.worldy.client.utils.WaypointTransfer;
+import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.ClickEvent;
 import net.minecraft.text.Text;
 import net.minecraft.util.math.Vec3d;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.argument;
 import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
 
 public class WaypointCommand {
 
-    public static void register() {
-        // Ensure death tracker is running so /waypoint death has data
-        DeathTracker.init();
+    private static final int LIST_LIMIT = 10;
+    private static final int SUGGESTION_LIMIT = 50;
+
+    // Position in the distance-ordered cycle used by /waypoint next
+    private static int cycleIndex = 0;
 
+    public static void register() {
         ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> {
             dispatcher.register(
                     literal("waypoint")
                             .then(literal("clear").executes(WaypointCommand::clearWaypoint))
                             .then(literal("here").executes(WaypointCommand::setWaypointHere))
-                            .then(literal("death").executes(WaypointCommand::setWaypointToDeath))
+                            .then(literal("death").executes(WaypointCommand::setWaypointToDeath)
+                                    .then(argument("n", IntegerArgumentType.integer(1, DeathJournal.RING_SIZE))
+                                            .executes(WaypointCommand::setWaypointToRecentDeath)))
+                            .then(literal("save").executes(WaypointCommand::saveWaypoint))
+                            .then(literal("add")
+                                    .then(argument("name", StringArgumentType.greedyString())
+                                            .executes(WaypointCommand::addWaypoint)))
+                            .then(literal("go")
+                                    .then(argument("name", StringArgumentType.greedyString())
+                                            .suggests(WaypointCommand::suggestNames)
+                                            .executes(WaypointCommand::goToWaypoint)))
+                            .then(literal("remove")
+                                    .then(argument("name", StringArgumentType.greedyString())
+                                            .suggests(WaypointCommand::suggestNames)
+                                            .executes(WaypointCommand::removeWaypoint)))
+                            .then(literal("share")
+                                    .then(argument("name", StringArgumentType.greedyString())
+                                            .suggests(WaypointCommand::suggestNames)
+                                            .executes(WaypointCommand::shareWaypoint)))
+                            .then(literal("paste")
+                                    .then(argument("code", StringArgumentType.greedyString())
+                                            .executes(WaypointCommand::pasteWaypoint)))
+                            .then(literal("import")
+                                    .then(literal("xaero").then(argument("path", StringArgumentType.greedyString())
+                                            .executes(ctx -> importWaypoints(ctx, WaypointTransfer.Format.XAERO))))
+                                    .then(literal("voxelmap").then(argument("path", StringArgumentType.greedyString())
+                                            .executes(ctx -> importWaypoints(ctx, WaypointTransfer.Format.VOXELMAP)))))
+                            .then(literal("export")
+                                    .then(literal("xaero").executes(ctx -> exportWaypoints(WaypointTransfer.Format.XAERO)))
+                                    .then(literal("voxelmap").executes(ctx -> exportWaypoints(WaypointTransfer.Format.VOXELMAP))))
+                            .then(literal("list").executes(WaypointCommand::listWaypoints))
+                            .then(literal("nearest").executes(WaypointCommand::setWaypointToNearest))
+                            .then(literal("next").executes(WaypointCommand::cycleWaypoint))
                             .then(literal("set")
-                                    .then(argument("x", DoubleArgumentType.doubleArg())
-                                            .then(argument("y", DoubleArgumentType.doubleArg())
-                                                    .then(argument("z", DoubleArgumentType.doubleArg())
+                                    .then(argument("x", CoordinateArgumentType.coordinate())
+                                            .then(argument("y", CoordinateArgumentType.coordinate())
+                                                    .then(argument("z", CoordinateArgumentType.coordinate())
                                                             .executes(WaypointCommand::setWaypointFromArgs)
                                                     )
                                             )
@@ -68,6 +120,10 @@ public class WaypointCommand {
             return 0;
         }
 
+        // Prefer the journal, it knows the dimension and the death message
+        DeathRecord latest = DeathJournal.getRecent(1);
+        if (latest != null) return setWaypointToDeathRecord(mc, latest, 1);
+
         Vec3d lastDeath = WaypointManager.getLastDeath();
 
         double x = centerOfBlock(lastDeath.x);
@@ -81,30 +137,49 @@ public class WaypointCommand {
         return 1;
     }
 
-    private static int setWaypointFromArgs(CommandContext<FabricClientCommandSource> ctx) {
+    private static int setWaypointToRecentDeath(CommandContext<FabricClientCommandSource> ctx) {
         MinecraftClient mc = MinecraftClient.getInstance();
         if (mc.player == null) {
             return 0;
         }
 
-        String input = ctx.getInput();
-        String after = input.trim().substring("waypoint set".length()).trim();
-        String[] parts = after.split("\\s+");
-        if (parts.length < 3) {
-            mc.player.sendMessage(Text.literal("§cUsage: /waypoint set <x|~> <y|~> <z|~>"), false);
+        int n = IntegerArgumentType.getInteger(ctx, "n");
+        DeathRecord death = DeathJournal.getRecent(n);
+        if (death == null) {
+            mc.player.sendMessage(Text.literal("§cOnly " + DeathJournal.size() + " deaths recorded."), false);
             return 0;
         }
+        return setWaypointToDeathRecord(mc, death, n);
+    }
 
-        Vec3d base = mc.player.getPos();
-        Vec3d eye = mc.player.getCameraPosVec(1.0F);
+    private static int setWaypointToDeathRecord(MinecraftClient mc, DeathRecord death, int n) {
+        double x = centerOfBlock(death.getX());
+        double y = centerOfBlock(death.getY());
+        double z = centerOfBlock(death.getZ());
+        WaypointManager.setWaypoint(new Vec3d(x, y, z));
+
+        String when = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+                .format(Instant.ofEpochMilli(death.getTimestamp()).atZone(ZoneId.systemDefault()));
+        mc.player.sendMessage(Text.literal(String.format("§aWaypoint set to death #%d at %s (%.2f, %.2f, %.2f).", n, when, x, y, z)), false);
+        if (death.getCause() != null && !death.getCause().isEmpty()) {
+            mc.player.sendMessage(Text.literal("§7" + death.getCause()), false);
+        }
+        if (!death.getDimension().equals(WaypointManager.getDimensionKey(mc))) {
+            mc.player.sendMessage(Text.literal("§eThat death was in " + death.getDimension() + "."), false);
+        }
+        return 1;
+    }
 
-        double x = parseCoordinate(parts[0], base.x, eye.x);
-        double y = parseCoordinate(parts[1], base.y, eye.y);
-        double z = parseCoordinate(parts[2], base.z, eye.z);
+    private static int setWaypointFromArgs(CommandContext<FabricClientCommandSource> ctx) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
+        }
 
-        x = centerOfBlock(x);
-        y = centerOfBlock(y);
-        z = centerOfBlock(z);
+        Vec3d base = mc.player.getPos();
+        double x = centerOfBlock(CoordinateArgumentType.getCoordinate(ctx, "x").resolve(base.x));
+        double y = centerOfBlock(CoordinateArgumentType.getCoordinate(ctx, "y").resolve(base.y));
+        double z = centerOfBlock(CoordinateArgumentType.getCoordinate(ctx, "z").resolve(base.z));
 
         Vec3d target = new Vec3d(x, y, z);
         WaypointManager.setWaypoint(target);
@@ -113,67 +188,240 @@ public class WaypointCommand {
         return 1;
     }
 
-    private static double centerOfBlock(double coord) {
-        return Math.floor(coord) + 0.5;
+    private static int saveWaypoint(CommandContext<?> ctx) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
+        }
+
+        Vec3d target = WaypointManager.getWaypoint();
+        if (target == null) {
+            mc.player.sendMessage(Text.literal("§cNo active waypoint to save."), false);
+            return 0;
+        }
+
+        String server = WaypointManager.getServerKey(mc);
+        String dimension = WaypointManager.getDimensionKey(mc);
+        int n = WaypointStore.count(server, dimension) + 1;
+        while (WaypointStore.get(server, dimension, "Waypoint " + n) != null) n++;
+        String name = "Waypoint " + n;
+
+        WaypointStore.add(new Waypoint(name, server, dimension, target.x, target.y, target.z, System.currentTimeMillis()));
+
+        mc.player.sendMessage(Text.literal(String.format("§aSaved waypoint '%s' (%.2f, %.2f, %.2f).", name, target.x, target.y, target.z)), false);
+        return 1;
+    }
+
+    private static int addWaypoint(CommandContext<FabricClientCommandSource> ctx) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
+        }
+
+        String name = StringArgumentType.getString(ctx, "name").trim();
+        if (name.isEmpty()) {
+            mc.player.sendMessage(Text.literal("§cUsage: /waypoint add <name>"), false);
+            return 0;
+        }
+
+        String server = WaypointManager.getServerKey(mc);
+        String dimension = WaypointManager.getDimensionKey(mc);
+        Vec3d pos = mc.player.getPos();
+        double x = centerOfBlock(pos.x);
+        double y = centerOfBlock(pos.y);
+        double z = centerOfBlock(pos.z);
+        boolean replaced = WaypointStore.get(server, dimension, name) != null;
+
+        WaypointStore.add(new Waypoint(name, server, dimension, x, y, z, System.currentTimeMillis()));
+
+        mc.player.sendMessage(Text.literal(String.format("§a%s waypoint '%s' (%.2f, %.2f, %.2f).",
+                replaced ? "Updated" : "Saved", name, x, y, z)), false);
+        return 1;
+    }
+
+    private static int goToWaypoint(CommandContext<FabricClientCommandSource> ctx) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
+        }
+
+        String name = StringArgumentType.getString(ctx, "name").trim();
+        Waypoint w = WaypointStore.get(WaypointManager.getServerKey(mc), WaypointManager.getDimensionKey(mc), name);
+        if (w == null) {
+            mc.player.sendMessage(Text.literal("§cNo waypoint named '" + name + "' in this dimension."), false);
+            return 0;
+        }
+
+        WaypointManager.setWaypoint(new Vec3d(w.getX(), w.getY(), w.getZ()));
+        mc.player.sendMessage(Text.literal(String.format("§aWaypoint set to '%s' (%.2f, %.2f, %.2f).", w.getName(), w.getX(), w.getY(), w.getZ())), false);
+        return 1;
+    }
+
+    private static int removeWaypoint(CommandContext<FabricClientCommandSource> ctx) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
+        }
+
+        String name = StringArgumentType.getString(ctx, "name").trim();
+        Waypoint removed = WaypointStore.remove(WaypointManager.getServerKey(mc), WaypointManager.getDimensionKey(mc), name);
+        if (removed == null) {
+            mc.player.sendMessage(Text.literal("§cNo waypoint named '" + name + "' in this dimension."), false);
+            return 0;
+        }
+
+        mc.player.sendMessage(Text.literal("§aRemoved waypoint '" + removed.getName() + "'."), false);
+        return 1;
+    }
+
+    private static int shareWaypoint(CommandContext<FabricClientCommandSource> ctx) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
+        }
+
+        String name = StringArgumentType.getString(ctx, "name").trim();
+        Waypoint w = WaypointStore.get(WaypointManager.getServerKey(mc), WaypointManager.getDimensionKey(mc), name);
+        if (w == null) {
+            mc.player.sendMessage(Text.literal("§cNo waypoint named '" + name + "' in this dimension."), false);
+            return 0;
+        }
+
+        String code = WaypointTransfer.encodeShareCode(w);
+        mc.player.sendMessage(Text.literal("§aShare code for '" + w.getName() + "' §7(click to copy): §e" + code)
+                .styled(style -> style.withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, code))), false);
+        return 1;
     }
 
-    private static double parseCoordinate(String token, double relativeFeet, double relativeEye) {
-        token = token.trim();
-        if (token.startsWith("~")) {
-            if (token.length() == 1) {
-                return relativeFeet;
-            } else {
-                String off = token.substring(1);
-                try {
-                    double val = Double.parseDouble(off);
-                    return relativeFeet + val;
-                } catch (NumberFormatException e) {
-                    return relativeFeet;
-                }
-            }
+    private static int pasteWaypoint(CommandContext<FabricClientCommandSource> ctx) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
+        }
+
+        Waypoint w = WaypointTransfer.decodeShareCode(StringArgumentType.getString(ctx, "code"), WaypointManager.getServerKey(mc));
+        if (w == null) {
+            mc.player.sendMessage(Text.literal("§cThat is not a valid waypoint code."), false);
+            return 0;
+        }
+
+        boolean replaced = WaypointStore.get(w.getServer(), w.getDimension(), w.getName()) != null;
+        WaypointStore.add(w);
+        mc.player.sendMessage(Text.literal(String.format("§a%s waypoint '%s' (%.0f, %.0f, %.0f).",
+                replaced ? "Updated" : "Saved", w.getName(), w.getX(), w.getY(), w.getZ())), false);
+
+        if (w.getDimension().equals(WaypointManager.getDimensionKey(mc))) {
+            WaypointManager.setWaypoint(new Vec3d(w.getX(), w.getY(), w.getZ()));
         } else {
-            try {
-                return Double.parseDouble(token);
-            } catch (NumberFormatException e) {
-                return relativeFeet;
-            }
+            mc.player.sendMessage(Text.literal("§eThat waypoint is in " + w.getDimension() + "."), false);
         }
+        return 1;
     }
 
-    private static final class DeathTracker {
-        private static volatile boolean initialized = false;
-        private static boolean wasAlive = false;
-        private static Vec3d lastKnownPos = null;
+    private static int importWaypoints(CommandContext<FabricClientCommandSource> ctx, WaypointTransfer.Format format) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
+        }
 
-        private DeathTracker() {}
+        // Relative paths are taken from the game directory, where the other mods keep their files
+        Path file = FabricLoader.getInstance().getGameDir().resolve(StringArgumentType.getString(ctx, "path").trim()).normalize();
+        if (!Files.isRegularFile(file)) {
+            mc.player.sendMessage(Text.literal("§cFile not found: " + file), false);
+            return 0;
+        }
 
-        public static void init() {
-            if (initialized) return;
-            initialized = true;
+        mc.player.sendMessage(Text.literal("§7Importing waypoints from " + file.getFileName() + "..."), false);
+        WaypointTransfer.importAsync(mc, format, file, WaypointManager.getServerKey(mc), WaypointManager.getDimensionKey(mc));
+        return 1;
+    }
 
-            ClientTickEvents.END_CLIENT_TICK.register(client -> {
-                try {
-                    if (client == null) return;
-                    if (client.player == null) {
-                        wasAlive = false;
-                        lastKnownPos = null;
-                        return;
-                    }
+    private static int exportWaypoints(WaypointTransfer.Format format) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
+        }
 
-                    lastKnownPos = client.player.getPos();
+        mc.player.sendMessage(Text.literal("§7Exporting waypoints..."), false);
+        WaypointTransfer.exportAsync(mc, format, WaypointManager.getServerKey(mc), WaypointManager.getDimensionKey(mc));
+        return 1;
+    }
+
+    // Served from the sorted name index, so completion cost does not grow with the number of saved waypoints
+    private static CompletableFuture<Suggestions> suggestNames(CommandContext<FabricClientCommandSource> ctx,
+                                                               SuggestionsBuilder builder) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) return builder.buildFuture();
+
+        for (String name : WaypointStore.namesWithPrefix(WaypointManager.getServerKey(mc),
+                WaypointManager.getDimensionKey(mc), builder.getRemaining(), SUGGESTION_LIMIT)) {
+            builder.suggest(name);
+        }
+        return builder.buildFuture();
+    }
+
+    private static int listWaypoints(CommandContext<?> ctx) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
+        }
+
+        String server = WaypointManager.getServerKey(mc);
+        String dimension = WaypointManager.getDimensionKey(mc);
+        Vec3d pos = mc.player.getPos();
+        List<Waypoint> nearest = WaypointStore.nearest(server, dimension, pos.x, pos.y, pos.z, LIST_LIMIT);
+        if (nearest.isEmpty()) {
+            mc.player.sendMessage(Text.literal("§eNo saved waypoints in this dimension."), false);
+            return 1;
+        }
+
+        int total = WaypointStore.count(server, dimension);
+        mc.player.sendMessage(Text.literal("§6=== Waypoints (" + nearest.size() + " of " + total + ") ==="), false);
+        for (Waypoint w : nearest) {
+            double distance = Math.sqrt(w.squaredDistanceTo(pos.x, pos.y, pos.z));
+            String runCommand = "/waypoint go " + w.getName();
+            mc.player.sendMessage(Text.literal(String.format("§e%s §7(%.0f, %.0f, %.0f) §b%.0fm", w.getName(), w.getX(), w.getY(), w.getZ(), distance))
+                    .styled(style -> style.withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, runCommand))), false);
+        }
+        return 1;
+    }
 
-                    boolean isAliveNow = !client.player.isDead() && client.player.getHealth() > 0.0F;
+    private static int setWaypointToNearest(CommandContext<?> ctx) {
+        cycleIndex = 0;
+        return selectByDistanceRank(0);
+    }
 
-                    if (wasAlive && !isAliveNow) {
-                        Vec3d deathPos = (lastKnownPos != null) ? lastKnownPos : client.player.getPos();
-                        WaypointManager.setLastDeath(deathPos);
-                    }
+    private static int cycleWaypoint(CommandContext<?> ctx) {
+        cycleIndex++;
+        return selectByDistanceRank(cycleIndex);
+    }
 
-                    wasAlive = isAliveNow;
-                } catch (Throwable t) {
-                    t.printStackTrace();
-                }
-            });
+    private static int selectByDistanceRank(int rank) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null) {
+            return 0;
         }
+
+        String server = WaypointManager.getServerKey(mc);
+        String dimension = WaypointManager.getDimensionKey(mc);
+        Vec3d pos = mc.player.getPos();
+        List<Waypoint> nearest = WaypointStore.nearest(server, dimension, pos.x, pos.y, pos.z, rank + 1);
+        if (nearest.isEmpty()) {
+            mc.player.sendMessage(Text.literal("§eNo saved waypoints in this dimension."), false);
+            return 0;
+        }
+        if (nearest.size() <= rank) {
+            cycleIndex = 0;
+            rank = 0;
+        }
+
+        Waypoint w = nearest.get(rank);
+        WaypointManager.setWaypoint(new Vec3d(w.getX(), w.getY(), w.getZ()));
+        mc.player.sendMessage(Text.literal(String.format("§aWaypoint set to '%s' (%.2f, %.2f, %.2f).", w.getName(), w.getX(), w.getY(), w.getZ())), false);
+        return 1;
+    }
+
+    private static double centerOfBlock(double coord) {
+        return Math.floor(coord) + 0.5;
     }
 }
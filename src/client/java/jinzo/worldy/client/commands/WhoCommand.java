@@ -0,0 +1,64 @@
+package jinzo.worldy.client.commands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import jinzo.worldy.client.Models.Staff;
+import jinzo.worldy.client.utils.NameIndex;
+import jinzo.worldy.client.utils.PlayerRoster;
+import jinzo.worldy.client.utils.StafflistHelper;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.HoverEvent;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.argument;
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+public final class WhoCommand {
+
+    private static final int LIMIT = 15;
+
+    public static LiteralArgumentBuilder<FabricClientCommandSource> register() {
+        return literal("who")
+                .then(argument("query", StringArgumentType.greedyString())
+                        .executes(ctx -> {
+                            MinecraftClient client = MinecraftClient.getInstance();
+                            if (client.player == null) return 0;
+
+                            String query = StringArgumentType.getString(ctx, "query");
+                            List<NameIndex.Match> matches = PlayerRoster.search(query, LIMIT);
+                            if (matches.isEmpty()) {
+                                client.player.sendMessage(Text.literal("§cNo online player matches '" + query + "'"), false);
+                                return 0;
+                            }
+
+                            Map<UUID, String> roles = new HashMap<>();
+                            for (Map.Entry<String, List<Staff>> entry : StafflistHelper.getCachedStaffData().entrySet()) {
+                                for (Staff member : entry.getValue()) roles.putIfAbsent(member.getUuid(), entry.getKey());
+                            }
+
+                            client.player.sendMessage(Text.literal("§6=== Online matching '" + query + "' ==="), false);
+                            for (NameIndex.Match match : matches) {
+                                String role = roles.get(match.uuid());
+                                MutableText line = Text.literal(match.name()).formatted(Formatting.GREEN)
+                                        .styled(style -> style.withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT,
+                                                Text.literal("UUID: " + match.uuid()).formatted(Formatting.GRAY))));
+                                if (role != null) {
+                                    line.append(Text.literal(" (" + role.substring(0, 1).toUpperCase() + role.substring(1) + ")")
+                                            .formatted(Formatting.YELLOW));
+                                }
+                                client.player.sendMessage(line, false);
+                            }
+                            return 1;
+                        }));
+    }
+
+    private WhoCommand() {}
+}
@@ -0,0 +1,108 @@
+package jinzo.worldy.client.commands;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import jinzo.worldy.client.utils.HttpHelper;
+import jinzo.worldy.client.utils.PerfMonitor;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+public final class WorldyCommand {
+
+    public static LiteralArgumentBuilder<FabricClientCommandSource> register() {
+        return literal("worldy")
+                .then(literal("perf")
+                        .executes(WorldyCommand::showPerf)
+                        .then(literal("reset").executes(WorldyCommand::resetPerf))
+                        .then(literal("dump").executes(WorldyCommand::dumpPerf)))
+                .then(literal("net").executes(WorldyCommand::showNet));
+    }
+
+    private static int showPerf(CommandContext<FabricClientCommandSource> ctx) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null) return 0;
+
+        Map<String, PerfMonitor.Histogram> handlers = PerfMonitor.getHandlers();
+        Map<String, PerfMonitor.Histogram> network = PerfMonitor.getNetwork();
+        if (handlers.isEmpty() && network.isEmpty()) {
+            client.player.sendMessage(Text.literal("§eNo samples recorded yet.").formatted(Formatting.YELLOW), false);
+            return 1;
+        }
+
+        client.player.sendMessage(Text.literal("§6=== Worldy Performance ===").formatted(Formatting.GOLD), false);
+        for (var e : handlers.entrySet()) {
+            PerfMonitor.Histogram h = e.getValue();
+            client.player.sendMessage(Text.literal(String.format("§e%s §7n=%d avg=§b%s §7p99=§b%s §7max=§b%s §7alloc=§b%s",
+                    e.getKey(), h.getCount(), micros(h.getMeanNanos()), micros(h.percentileNanos(0.99)),
+                    micros(h.getMaxNanos()), bytes(h.getMeanAllocatedBytes()))), false);
+        }
+        for (var e : network.entrySet()) {
+            PerfMonitor.Histogram h = e.getValue();
+            client.player.sendMessage(Text.literal(String.format("§d%s §7n=%d failed=%d avg=§b%s §7p99=§b%s §7max=§b%s",
+                    e.getKey(), h.getCount(), h.getFailures(), millis(h.getMeanNanos()),
+                    millis(h.percentileNanos(0.99)), millis(h.getMaxNanos()))), false);
+        }
+        return 1;
+    }
+
+    private static int resetPerf(CommandContext<FabricClientCommandSource> ctx) {
+        PerfMonitor.reset();
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player != null) client.player.sendMessage(Text.literal("§aPerformance counters reset."), false);
+        return 1;
+    }
+
+    private static int dumpPerf(CommandContext<FabricClientCommandSource> ctx) {
+        Path file = PerfMonitor.dump();
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player != null) client.player.sendMessage(Text.literal("§aPerformance counters appended to " + file), false);
+        return 1;
+    }
+
+    private static int showNet(CommandContext<FabricClientCommandSource> ctx) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null) return 0;
+
+        Map<String, HttpHelper.HostStats> hosts = HttpHelper.getHosts();
+        if (hosts.isEmpty()) {
+            client.player.sendMessage(Text.literal("§eNo requests sent yet.").formatted(Formatting.YELLOW), false);
+            return 1;
+        }
+
+        client.player.sendMessage(Text.literal("§6=== Worldy Network ===" + (HttpHelper.isOffline() ? " §c(offline)" : ""))
+                .formatted(Formatting.GOLD), false);
+        for (var e : hosts.entrySet()) {
+            HttpHelper.HostStats h = e.getValue();
+            String state = switch (h.getState()) {
+                case CLOSED -> "§aok";
+                case HALF_OPEN -> "§eprobing";
+                case OPEN -> "§copen";
+            };
+            client.player.sendMessage(Text.literal(String.format("§d%s %s §7sent=%d failed=%d refused=%d avg=§b%s",
+                    e.getKey(), state, h.getRequests(), h.getFailures(), h.getRejected(),
+                    millis(h.getMeanLatencyNanos()))), false);
+        }
+        return 1;
+    }
+
+    private static String micros(double nanos) {
+        return String.format("%.1fµs", nanos / 1_000.0);
+    }
+
+    private static String millis(double nanos) {
+        return String.format("%.0fms", nanos / 1_000_000.0);
+    }
+
+    private static String bytes(double bytes) {
+        return bytes >= 1024 ? String.format("%.1fKB", bytes / 1024.0) : String.format("%.0fB", bytes);
+    }
+
+    private WorldyCommand() {}
+}
@@ -0,0 +1,58 @@
+package jinzo.worldy.client.utils;
+
+/**
+ * Immutable, 2-bit-per-block walkability copy of one chunk column, taken on the client thread and read by the
+ * pathfinder. Holds no Minecraft objects so it can be shared freely between threads.
+ */
+public final class ChunkSnapshot {
+
+    public static final byte OPEN = 0;   // no collision, can be occupied
+    public static final byte SOLID = 1;  // can be stood on
+    public static final byte DANGER = 2; // lava, fire, cactus and similar: neither stand on nor enter
+    public static final byte WATER = 3;  // can be occupied and swum through
+    public static final byte UNKNOWN = -1;
+
+    private final int chunkX;
+    private final int chunkZ;
+    private final int minY;
+    private final int height;
+    private final long[] cells;
+
+    ChunkSnapshot(int chunkX, int chunkZ, int minY, int height, long[] cells) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.minY = minY;
+        this.height = height;
+        this.cells = cells;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    /** Cell type at a world position inside this chunk; below the world is DANGER, above it is OPEN. */
+    public byte get(int x, int y, int z) {
+        int ly = y - minY;
+        if (ly < 0) return DANGER;
+        if (ly >= height) return OPEN;
+        int index = (ly << 8) | ((z & 15) << 4) | (x & 15);
+        return (byte) ((cells[index >>> 5] >>> ((index & 31) << 1)) & 3);
+    }
+
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    static long[] allocate(int height) {
+        return new long[(height * 256 + 31) >>> 5];
+    }
+
+    static void set(long[] cells, int index, byte type) {
+        int shift = (index & 31) << 1;
+        cells[index >>> 5] = (cells[index >>> 5] & ~(3L << shift)) | ((long) type << shift);
+    }
+}
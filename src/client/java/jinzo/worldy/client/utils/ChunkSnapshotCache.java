@@ -0,0 +1,175 @@
+package jinzo.worldy.client.utils;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.registry.tag.FluidTags;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.EmptyBlockView;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@link ChunkSnapshot}s of the loaded chunks around the player. Captures happen on the client thread a few
+ * chunks per tick; block and chunk updates mark chunks dirty so they are captured again.
+ */
+public final class ChunkSnapshotCache {
+
+    private static final int RADIUS = 8;
+    private static final int CAPTURES_PER_TICK = 2;
+    private static final long CAPTURE_BUDGET_NANOS = 1_000_000L;
+
+    private final Map<Long, ChunkSnapshot> snapshots = new ConcurrentHashMap<>();
+    // Client thread only
+    private final Set<Long> dirty = new HashSet<>();
+    private final Set<Long> changedSinceMark = new HashSet<>();
+    private final ArrayDeque<Long> queue = new ArrayDeque<>();
+    private final Map<BlockState, Byte> classification = new IdentityHashMap<>();
+    private boolean needsScan = true;
+    private int lastCenterX = Integer.MIN_VALUE;
+    private int lastCenterZ = Integer.MIN_VALUE;
+
+    /** Immutable copy of the current snapshots for a background planner. */
+    public Map<Long, ChunkSnapshot> view() {
+        return Map.copyOf(snapshots);
+    }
+
+    public void markDirty(int chunkX, int chunkZ) {
+        dirty.add(ChunkSnapshot.key(chunkX, chunkZ));
+        needsScan = true;
+    }
+
+    public void onChunkLoaded() {
+        needsScan = true;
+    }
+
+    public void onChunkUnloaded(int chunkX, int chunkZ) {
+        snapshots.remove(ChunkSnapshot.key(chunkX, chunkZ));
+    }
+
+    public void clear() {
+        snapshots.clear();
+        dirty.clear();
+        changedSinceMark.clear();
+        queue.clear();
+        needsScan = true;
+    }
+
+    /** Keys of chunks whose content was recaptured since the last call, which callers use to invalidate routes. */
+    public Set<Long> drainChanged() {
+        if (changedSinceMark.isEmpty()) return Set.of();
+        Set<Long> changed = new HashSet<>(changedSinceMark);
+        changedSinceMark.clear();
+        return changed;
+    }
+
+    /** Captures up to a few pending chunks around the given chunk. Returns true if anything was captured. */
+    public boolean tick(ClientWorld world, int centerX, int centerZ) {
+        if (centerX != lastCenterX || centerZ != lastCenterZ) {
+            lastCenterX = centerX;
+            lastCenterZ = centerZ;
+            needsScan = true;
+        }
+        if (needsScan) scan(world, centerX, centerZ);
+        if (queue.isEmpty()) return false;
+
+        long deadline = System.nanoTime() + CAPTURE_BUDGET_NANOS;
+        int captured = 0;
+        while (!queue.isEmpty() && captured < CAPTURES_PER_TICK && System.nanoTime() < deadline) {
+            long key = queue.poll();
+            int cx = (int) (key >> 32), cz = (int) key;
+            WorldChunk chunk = world.getChunkManager().getChunk(cx, cz, ChunkStatus.FULL, false);
+            if (chunk == null) continue;
+
+            boolean recapture = snapshots.containsKey(key);
+            snapshots.put(key, capture(world, chunk, cx, cz));
+            dirty.remove(key);
+            if (recapture) changedSinceMark.add(key);
+            captured++;
+        }
+        return captured > 0;
+    }
+
+    private void scan(ClientWorld world, int centerX, int centerZ) {
+        needsScan = false;
+        queue.clear();
+
+        snapshots.keySet().removeIf(key -> outOfRange(key, centerX, centerZ));
+        dirty.removeIf(key -> outOfRange(key, centerX, centerZ));
+
+        for (int r = 0; r <= RADIUS; r++) {
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dz = -r; dz <= r; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != r) continue;
+                    int cx = centerX + dx, cz = centerZ + dz;
+                    long key = ChunkSnapshot.key(cx, cz);
+                    if (snapshots.containsKey(key) && !dirty.contains(key)) continue;
+                    if (!world.getChunkManager().isChunkLoaded(cx, cz)) continue;
+                    queue.add(key);
+                }
+            }
+        }
+    }
+
+    private static boolean outOfRange(long key, int centerX, int centerZ) {
+        int cx = (int) (key >> 32), cz = (int) key;
+        return Math.max(Math.abs(cx - centerX), Math.abs(cz - centerZ)) > RADIUS + 2;
+    }
+
+    private ChunkSnapshot capture(ClientWorld world, WorldChunk chunk, int cx, int cz) {
+        int minY = world.getBottomY();
+        int height = world.getHeight();
+        long[] cells = ChunkSnapshot.allocate(height);
+
+        ChunkSection[] sections = chunk.getSectionArray();
+        for (int s = 0; s < sections.length; s++) {
+            ChunkSection section = sections[s];
+            // Empty sections are all air, which is OPEN (0) and already the array default
+            if (section == null || section.isEmpty()) continue;
+            int baseY = s << 4;
+            for (int y = 0; y < 16; y++) {
+                int ly = baseY + y;
+                if (ly >= height) break;
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        byte type = classify(section.getBlockState(x, y, z));
+                        if (type != ChunkSnapshot.OPEN) {
+                            ChunkSnapshot.set(cells, (ly << 8) | (z << 4) | x, type);
+                        }
+                    }
+                }
+            }
+        }
+        return new ChunkSnapshot(cx, cz, minY, height, cells);
+    }
+
+    private byte classify(BlockState state) {
+        Byte cached = classification.get(state);
+        if (cached != null) return cached;
+
+        byte type;
+        if (state.getFluidState().isIn(FluidTags.LAVA) || state.isIn(BlockTags.FIRE) || state.isIn(BlockTags.CAMPFIRES)
+                || state.isOf(Blocks.CACTUS) || state.isOf(Blocks.MAGMA_BLOCK) || state.isOf(Blocks.SWEET_BERRY_BUSH)
+                || state.isOf(Blocks.POWDER_SNOW) || state.isOf(Blocks.WITHER_ROSE) || state.isOf(Blocks.POINTED_DRIPSTONE)) {
+            type = ChunkSnapshot.DANGER;
+        } else {
+            VoxelShape shape = state.getCollisionShape(EmptyBlockView.INSTANCE, BlockPos.ORIGIN);
+            if (shape.isEmpty()) {
+                type = state.getFluidState().isIn(FluidTags.WATER) ? ChunkSnapshot.WATER : ChunkSnapshot.OPEN;
+            } else if (shape.getMax(Direction.Axis.Y) > 1.0) {
+                type = ChunkSnapshot.DANGER; // fences and walls cannot be stepped over
+            } else {
+                type = ChunkSnapshot.SOLID;
+            }
+        }
+        classification.put(state, type);
+        return type;
+    }
+}
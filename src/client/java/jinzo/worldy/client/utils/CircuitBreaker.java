@@ -0,0 +1,67 @@
+package jinzo.worldy.client.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-host circuit breaker. After {@code threshold} consecutive failures the circuit opens and calls are refused
+ * without touching the network. The open period doubles with every further failure (with ±50% jitter so several
+ * clients do not retry in lockstep) up to {@code maxBackoff}; once it expires a single probe is let through.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int threshold;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private int consecutiveFailures = 0;
+    private long openUntil = 0;
+    private boolean probing = false;
+
+    public CircuitBreaker(int threshold, long baseBackoff, long maxBackoff, TimeUnit unit) {
+        this.threshold = threshold;
+        this.baseBackoffNanos = unit.toNanos(baseBackoff);
+        this.maxBackoffNanos = unit.toNanos(maxBackoff);
+    }
+
+    /** Whether a call may go out now. In half-open state only one caller gets through until it reports back. */
+    public synchronized boolean tryAcquire() {
+        if (consecutiveFailures < threshold) return true;
+        if (System.nanoTime() - openUntil < 0 || probing) return false;
+        probing = true;
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probing = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        probing = false;
+        if (consecutiveFailures < threshold) return;
+
+        int exponent = Math.min(consecutiveFailures - threshold, 20);
+        long backoff = Math.min(maxBackoffNanos, baseBackoffNanos << exponent);
+        openUntil = System.nanoTime() + (long) (backoff * ThreadLocalRandom.current().nextDouble(0.5, 1.5));
+    }
+
+    /** Gives up a half-open probe without an outcome, e.g. when the call was cancelled. */
+    public synchronized void release() {
+        probing = false;
+    }
+
+    public synchronized State getState() {
+        if (consecutiveFailures < threshold) return State.CLOSED;
+        return System.nanoTime() - openUntil < 0 ? State.OPEN : State.HALF_OPEN;
+    }
+
+    /** Nanoseconds until the next probe is allowed, 0 if calls may go out now. */
+    public synchronized long remainingNanos() {
+        if (consecutiveFailures < threshold) return 0;
+        return Math.max(0, openUntil - System.nanoTime());
+    }
+}
@@ -0,0 +1,209 @@
+package jinzo.worldy.client.utils;
+
+import jinzo.worldy.client.Models.DeathRecord;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of deaths in {@code config/worldy/deaths.log}. The most recent {@link #RING_SIZE} entries are
+ * kept in memory; the file is memory-mapped and scanned once, on first access, to fill them.
+ * <p>
+ * Each record is stored as {@code [int length][payload]} so a scan can hop from record to record. Once the file
+ * holds more than {@link #COMPACT_THRESHOLD} records it is rewritten with only the newest {@link #KEEP_RECORDS}.
+ * A torn tail left by a crash is cut off before the next append, so new records never land behind it.
+ */
+public final class DeathJournal {
+
+    public static final int RING_SIZE = 64;
+    private static final int COMPACT_THRESHOLD = 2000;
+    private static final int KEEP_RECORDS = 500;
+
+    private static final String FILE_NAME = "deaths.log";
+    private static final int MAGIC = 0x57444A31; // "WDJ1"
+    private static final int HEADER_BYTES = 4;
+
+    private static final DeathRecord[] ring = new DeathRecord[RING_SIZE];
+    private static int ringHead = 0; // next slot to write
+    private static int ringCount = 0;
+    private static int fileRecords = 0;
+    private static boolean loaded = false;
+
+    private static final Object fileLock = new Object();
+    // End of the last intact record when the file has a torn tail, or -1; guarded by fileLock
+    private static long truncateAt = -1;
+
+    private DeathJournal() {}
+
+    /** Scans the journal ahead of the first lookup. */
+    public static synchronized void preload() {
+        ensureLoaded();
+    }
+
+    /** Adds a death to the in-memory view immediately and appends it to the journal on the persistence thread. */
+    public static void append(DeathRecord record) {
+        synchronized (DeathJournal.class) {
+            ensureLoaded();
+            push(record);
+        }
+        PersistenceQueue.execute(() -> writeRecord(record));
+    }
+
+    /** The {@code n}-th most recent death (1 = latest), or null if there are fewer than {@code n}. */
+    public static synchronized DeathRecord getRecent(int n) {
+        ensureLoaded();
+        if (n < 1 || n > ringCount) return null;
+        return ring[Math.floorMod(ringHead - n, RING_SIZE)];
+    }
+
+    public static synchronized int size() {
+        ensureLoaded();
+        return ringCount;
+    }
+
+    private static void push(DeathRecord record) {
+        ring[ringHead] = record;
+        ringHead = (ringHead + 1) % RING_SIZE;
+        if (ringCount < RING_SIZE) ringCount++;
+    }
+
+    private static void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+
+        synchronized (fileLock) {
+            Path file = StorageHelper.resolve(FILE_NAME);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < HEADER_BYTES) return;
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (buf.getInt() != MAGIC) {
+                    truncateAt = 0;
+                    return;
+                }
+
+                int end = HEADER_BYTES;
+                while (buf.remaining() >= 4) {
+                    int length = buf.getInt();
+                    if (length <= 0 || length > buf.remaining()) break; // torn tail from a crash
+                    ByteBuffer payload = buf.slice(buf.position(), length);
+                    buf.position(buf.position() + length);
+                    end = buf.position();
+                    fileRecords++;
+                    try {
+                        push(decode(payload));
+                    } catch (RuntimeException e) {
+                        System.err.println("Skipping unreadable death journal record: " + e);
+                    }
+                }
+                if (end < size) truncateAt = end;
+            } catch (NoSuchFileException ignored) {
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Failed to read death journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void writeRecord(DeathRecord record) {
+        synchronized (fileLock) {
+            Path file = StorageHelper.resolve(FILE_NAME);
+            try {
+                Files.createDirectories(file.getParent());
+                if (truncateAt >= 0) {
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        channel.truncate(truncateAt);
+                    } catch (NoSuchFileException ignored) {
+                    }
+                    truncateAt = -1;
+                }
+                boolean fresh = !Files.exists(file) || Files.size(file) < HEADER_BYTES;
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                        fresh ? new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE}
+                              : new StandardOpenOption[]{StandardOpenOption.APPEND})))) {
+                    if (fresh) out.writeInt(MAGIC);
+                    byte[] payload = encode(record);
+                    out.writeInt(payload.length);
+                    out.write(payload);
+                }
+                fileRecords++;
+                if (fileRecords > COMPACT_THRESHOLD) compact(file);
+            } catch (IOException e) {
+                System.err.println("Failed to append to death journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void compact(Path file) throws IOException {
+        List<Integer> offsets = new ArrayList<>();
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        buf.getInt();
+        int end = HEADER_BYTES;
+        while (buf.remaining() >= 4) {
+            int start = buf.position();
+            int length = buf.getInt();
+            if (length <= 0 || length > buf.remaining()) break;
+            offsets.add(start);
+            buf.position(buf.position() + length);
+            end = buf.position();
+        }
+        if (offsets.size() <= KEEP_RECORDS) {
+            fileRecords = offsets.size();
+            return;
+        }
+
+        int from = offsets.get(offsets.size() - KEEP_RECORDS);
+        int to = end;
+        byte[] data = buf.array();
+        StorageHelper.writeAtomically(file, out -> {
+            new DataOutputStream(out).writeInt(MAGIC);
+            out.write(data, from, to - from);
+        });
+        fileRecords = KEEP_RECORDS;
+    }
+
+    private static byte[] encode(DeathRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(record.getTimestamp());
+        writeString(out, record.getServer());
+        writeString(out, record.getDimension());
+        out.writeDouble(record.getX());
+        out.writeDouble(record.getY());
+        out.writeDouble(record.getZ());
+        writeString(out, record.getCause());
+        return bytes.toByteArray();
+    }
+
+    private static DeathRecord decode(ByteBuffer buf) {
+        long timestamp = buf.getLong();
+        String server = readString(buf);
+        String dimension = readString(buf);
+        double x = buf.getDouble();
+        double y = buf.getDouble();
+        double z = buf.getDouble();
+        String cause = readString(buf);
+        return new DeathRecord(timestamp, server, dimension, x, y, z, cause);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeShort(Math.min(utf8.length, 0xFFFF));
+        out.write(utf8, 0, Math.min(utf8.length, 0xFFFF));
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getShort() & 0xFFFF;
+        byte[] utf8 = new byte[length];
+        buf.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
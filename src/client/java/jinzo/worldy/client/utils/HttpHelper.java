@@ -0,0 +1,151 @@
+package jinzo.worldy.client.utils;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.UnresolvedAddressException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared HTTP plumbing. Requests sent through {@link #send} are guarded by a circuit breaker per host, and
+ * connection-level failures (no route, DNS, connect timeout) switch every host into a fast-fail offline mode with
+ * its own backoff. Refused calls throw {@link UnavailableException} without touching the network.
+ */
+public final class HttpHelper {
+
+    public static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    // One pooled client for every Worldy request; it keeps connections alive between lookups
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private static final Map<String, HostStats> hosts = new ConcurrentHashMap<>();
+    private static final CircuitBreaker network = new CircuitBreaker(2, 5, 120, TimeUnit.SECONDS);
+
+    /** Thrown instead of sending when the host's circuit is open or the client is offline. */
+    public static final class UnavailableException extends IOException {
+        public UnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    public static final class HostStats {
+        private final CircuitBreaker breaker = new CircuitBreaker(3, 2, 300, TimeUnit.SECONDS);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+
+        public CircuitBreaker.State getState() {
+            return breaker.getState();
+        }
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getRejected() {
+            return rejected.sum();
+        }
+
+        public double getMeanLatencyNanos() {
+            long n = requests.sum();
+            return n == 0 ? 0 : (double) latencyNanos.sum() / n;
+        }
+    }
+
+    private HttpHelper() {}
+
+    public static HttpClient client() {
+        return CLIENT;
+    }
+
+    public static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("User-Agent", "Worldy")
+                .GET();
+    }
+
+    public static <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        return send(CLIENT, request, handler);
+    }
+
+    /**
+     * Sends {@code request} unless its host is known to be failing. 5xx and 429 responses are returned to the caller
+     * but count as failures for the breaker.
+     */
+    public static <T> HttpResponse<T> send(HttpClient client, HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        HostStats host = hosts.computeIfAbsent(String.valueOf(request.uri().getHost()), h -> new HostStats());
+        if (network.remainingNanos() > 0) {
+            host.rejected.increment();
+            throw new UnavailableException("offline, retrying in " + TimeUnit.NANOSECONDS.toSeconds(network.remainingNanos()) + "s");
+        }
+        if (!host.breaker.tryAcquire()) {
+            host.rejected.increment();
+            throw new UnavailableException(request.uri().getHost() + " unavailable, retrying in "
+                    + TimeUnit.NANOSECONDS.toSeconds(host.breaker.remainingNanos()) + "s");
+        }
+
+        long start = System.nanoTime();
+        host.requests.increment();
+        try {
+            HttpResponse<T> response = client.send(request, handler);
+            network.onSuccess();
+            if (response.statusCode() >= 500 || response.statusCode() == 429) {
+                host.failures.increment();
+                host.breaker.onFailure();
+            } else {
+                host.breaker.onSuccess();
+            }
+            return response;
+        } catch (IOException | UnresolvedAddressException e) {
+            host.failures.increment();
+            host.breaker.onFailure();
+            if (isConnectivityFailure(e)) network.onFailure();
+            throw e instanceof IOException io ? io : new IOException(e);
+        } catch (InterruptedException e) {
+            // Cancelled by us, says nothing about the host; let the next caller probe again
+            host.breaker.release();
+            throw e;
+        } finally {
+            host.latencyNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    public static boolean isOffline() {
+        return network.remainingNanos() > 0;
+    }
+
+    public static Map<String, HostStats> getHosts() {
+        return new TreeMap<>(hosts);
+    }
+
+    private static boolean isConnectivityFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof HttpConnectTimeoutException
+                    || t instanceof UnknownHostException || t instanceof UnresolvedAddressException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,180 @@
+package jinzo.worldy.client.utils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * UUID to username cache: a bounded in-memory LRU in front of the {@link SharedCache} file that every local Worldy
+ * instance reads and writes, so a name resolved by one client is known to the others straight away.
+ * Lookups that failed are kept as negative entries with a much shorter TTL so they are not retried on every load.
+ * <p>
+ * Misses and negative entries always consult the shared file, since another instance may have resolved the name
+ * in the meantime. The per-instance {@code names.bin} is imported once when the shared file is first created, and
+ * stays the disk tier if the shared file cannot be mapped.
+ */
+public final class NameCache {
+
+    private static final int MAX_ENTRIES = 4096;
+    private static final long POSITIVE_TTL_MS = TimeUnit.DAYS.toMillis(7);
+    private static final long NEGATIVE_TTL_MS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final int MAGIC = 0x574E4331; // "WNC1"
+    private static final String LOCAL_FILE_NAME = "names.bin";
+
+    private static final class Entry {
+        final String name; // null for negative entries
+        final long expiresAt;
+
+        Entry(String name, long expiresAt) {
+            this.name = name;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static SharedCache shared;
+    private static boolean loaded = false;
+    private static boolean dirty = false;
+
+    private NameCache() {}
+
+    /** Maps the shared cache and imports legacy data ahead of the first lookup. */
+    public static synchronized void preload() {
+        ensureLoaded();
+    }
+
+    /** Returns the cached username, or null on a miss, an expired entry or a negative entry. */
+    public static synchronized String getName(UUID uuid) {
+        Entry e = lookup(uuid);
+        return e != null ? e.name : null;
+    }
+
+    /** True if a recent lookup for this UUID failed and should not be retried yet. */
+    public static synchronized boolean isNegative(UUID uuid) {
+        Entry e = lookup(uuid);
+        return e != null && e.name == null;
+    }
+
+    public static synchronized void put(UUID uuid, String name) {
+        store(uuid, name, System.currentTimeMillis() + POSITIVE_TTL_MS);
+    }
+
+    public static synchronized void putNegative(UUID uuid) {
+        store(uuid, null, System.currentTimeMillis() + NEGATIVE_TTL_MS);
+    }
+
+    private static void store(UUID uuid, String name, long expiresAt) {
+        ensureLoaded();
+        entries.put(uuid, new Entry(name, expiresAt));
+        if (shared != null) shared.put(uuid, name, expiresAt);
+        else markDirty();
+    }
+
+    /** Writes {@code names.bin} when the shared file is unavailable and anything changed. Runs on the persistence thread. */
+    public static void save() {
+        List<Map.Entry<UUID, Entry>> copy;
+        synchronized (NameCache.class) {
+            if (!dirty) return;
+            copy = new ArrayList<>(entries.entrySet());
+            dirty = false;
+        }
+
+        long now = System.currentTimeMillis();
+        try {
+            StorageHelper.writeAtomically(StorageHelper.resolve(LOCAL_FILE_NAME), raw -> {
+                DataOutputStream out = new DataOutputStream(raw);
+                out.writeInt(MAGIC);
+                int live = 0;
+                for (var e : copy) if (e.getValue().expiresAt > now) live++;
+                out.writeInt(live);
+                for (var e : copy) {
+                    Entry entry = e.getValue();
+                    if (entry.expiresAt <= now) continue;
+                    out.writeLong(e.getKey().getMostSignificantBits());
+                    out.writeLong(e.getKey().getLeastSignificantBits());
+                    out.writeLong(entry.expiresAt);
+                    out.writeBoolean(entry.name != null);
+                    if (entry.name != null) out.writeUTF(entry.name);
+                }
+                out.flush();
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to save name cache: " + e.getMessage());
+        }
+    }
+
+    private static void markDirty() {
+        dirty = true;
+        PersistenceQueue.markDirty(LOCAL_FILE_NAME, NameCache::save);
+    }
+
+    private static Entry lookup(UUID uuid) {
+        ensureLoaded();
+        long now = System.currentTimeMillis();
+        Entry e = entries.get(uuid);
+        if (e != null && e.expiresAt <= now) {
+            entries.remove(uuid);
+            e = null;
+        }
+        if ((e == null || e.name == null) && shared != null) {
+            SharedCache.Entry fromShared = shared.lookup(uuid, now);
+            if (fromShared != null) {
+                e = new Entry(fromShared.name(), fromShared.expiresAt());
+                entries.put(uuid, e);
+            }
+        }
+        return e;
+    }
+
+    private static void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+
+        shared = SharedCache.get();
+        Path file = StorageHelper.resolve(LOCAL_FILE_NAME);
+        if (shared == null) {
+            // No shared file: names.bin stays this instance's disk tier
+            readLocal(file, (uuid, entry) -> entries.put(uuid, entry));
+            return;
+        }
+        if (!shared.isCreated() || !readLocal(file, (uuid, entry) -> shared.put(uuid, entry.name, entry.expiresAt))) return;
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Failed to remove imported name cache: " + e.getMessage());
+        }
+    }
+
+    /** Passes every unexpired entry of {@code names.bin} to {@code sink}; false if there was nothing to read. */
+    private static boolean readLocal(Path file, BiConsumer<UUID, Entry> sink) {
+        long now = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) return false;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                long expiresAt = in.readLong();
+                String name = in.readBoolean() ? in.readUTF() : null;
+                if (expiresAt > now) sink.accept(uuid, new Entry(name, expiresAt));
+            }
+            return true;
+        } catch (NoSuchFileException ignored) {
+            return false;
+        } catch (IOException e) {
+            System.err.println("Failed to load name cache: " + e.getMessage());
+            return false;
+        }
+    }
+}
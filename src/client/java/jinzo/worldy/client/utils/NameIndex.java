@@ -0,0 +1,162 @@
+package jinzo.worldy.client.utils;
+
+import java.util.*;
+
+/**
+ * Incrementally maintained search index over player names. Prefix matches come from a sorted map of lower-case
+ * names; fuzzy matches from trigram postings, verified with a bounded edit distance, so a query only looks at
+ * names that share a trigram with it. All methods are synchronized so the index can be fed from background threads
+ * and queried on the client thread.
+ */
+public final class NameIndex {
+
+    public record Match(UUID uuid, String name, int score) {}
+
+    private static final int CANDIDATE_LIMIT = 256;
+
+    private final Map<UUID, String> names = new HashMap<>();
+    private final NavigableMap<String, Set<UUID>> sorted = new TreeMap<>();
+    private final Map<String, Set<UUID>> trigrams = new HashMap<>();
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    /** Adds or renames an entry. A no-op if the name did not change. */
+    public synchronized void put(UUID uuid, String name) {
+        String previous = names.get(uuid);
+        if (name.equals(previous)) return;
+        if (previous != null) unindex(uuid, previous);
+        names.put(uuid, name);
+        String key = key(name);
+        sorted.computeIfAbsent(key, k -> new HashSet<>(2)).add(uuid);
+        for (String gram : trigramsOf(key)) trigrams.computeIfAbsent(gram, k -> new HashSet<>()).add(uuid);
+    }
+
+    public synchronized void remove(UUID uuid) {
+        String previous = names.remove(uuid);
+        if (previous != null) unindex(uuid, previous);
+    }
+
+    /** Removes every entry whose UUID is not in {@code keep}. */
+    public synchronized void retainAll(Set<UUID> keep) {
+        for (UUID uuid : new ArrayList<>(names.keySet())) {
+            if (!keep.contains(uuid)) remove(uuid);
+        }
+    }
+
+    public synchronized void clear() {
+        names.clear();
+        sorted.clear();
+        trigrams.clear();
+    }
+
+    /**
+     * Best matches for {@code query}, best first. Score 0 is an exact match, 1 a prefix match, 2 a substring match
+     * and 3 or more a fuzzy match (3 + edit distance). Queries shorter than a trigram have no postings to narrow
+     * them down, so their substring matches come from a scan over all names.
+     */
+    public synchronized List<Match> search(String query, int limit) {
+        String q = key(query.trim());
+        if (q.isEmpty() || limit <= 0) return List.of();
+
+        Map<UUID, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Set<UUID>> e : sorted.tailMap(q, true).entrySet()) {
+            if (!e.getKey().startsWith(q) || scores.size() >= limit) break;
+            int score = e.getKey().length() == q.length() ? 0 : 1;
+            for (UUID uuid : e.getValue()) scores.put(uuid, score);
+        }
+
+        if (scores.size() < limit && q.length() < 3) {
+            for (Map.Entry<UUID, String> e : names.entrySet()) {
+                if (!scores.containsKey(e.getKey()) && key(e.getValue()).contains(q)) scores.put(e.getKey(), 2);
+            }
+        } else if (scores.size() < limit) {
+            int maxEdits = q.length() <= 3 ? 0 : q.length() <= 6 ? 1 : 2;
+            for (UUID uuid : candidates(q)) {
+                if (scores.containsKey(uuid)) continue;
+                String name = key(names.get(uuid));
+                if (name.contains(q)) {
+                    scores.put(uuid, 2);
+                    continue;
+                }
+                int distance = prefixDistance(q, name, maxEdits);
+                if (distance <= maxEdits) scores.put(uuid, 3 + distance);
+            }
+        }
+
+        List<Match> result = new ArrayList<>(scores.size());
+        for (Map.Entry<UUID, Integer> e : scores.entrySet()) {
+            result.add(new Match(e.getKey(), names.get(e.getKey()), e.getValue()));
+        }
+        result.sort(Comparator.comparingInt(Match::score).thenComparing(m -> key(m.name())));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /** Names sharing the most trigrams with {@code q}, capped at {@link #CANDIDATE_LIMIT}. */
+    private List<UUID> candidates(String q) {
+        Map<UUID, Integer> shared = new HashMap<>();
+        for (String gram : trigramsOf(q)) {
+            Set<UUID> posting = trigrams.get(gram);
+            if (posting == null) continue;
+            for (UUID uuid : posting) shared.merge(uuid, 1, Integer::sum);
+        }
+        if (shared.size() <= CANDIDATE_LIMIT) return new ArrayList<>(shared.keySet());
+
+        List<Map.Entry<UUID, Integer>> ranked = new ArrayList<>(shared.entrySet());
+        ranked.sort(Map.Entry.<UUID, Integer>comparingByValue().reversed());
+        List<UUID> result = new ArrayList<>(CANDIDATE_LIMIT);
+        for (int i = 0; i < CANDIDATE_LIMIT; i++) result.add(ranked.get(i).getKey());
+        return result;
+    }
+
+    private void unindex(UUID uuid, String name) {
+        String key = key(name);
+        Set<UUID> bucket = sorted.get(key);
+        if (bucket != null && bucket.remove(uuid) && bucket.isEmpty()) sorted.remove(key);
+        for (String gram : trigramsOf(key)) {
+            Set<UUID> posting = trigrams.get(gram);
+            if (posting != null && posting.remove(uuid) && posting.isEmpty()) trigrams.remove(gram);
+        }
+    }
+
+    // The markers let name starts and ends produce trigrams of their own
+    private static Set<String> trigramsOf(String key) {
+        String padded = "^" + key + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) grams.add(padded.substring(i, i + 3));
+        return grams;
+    }
+
+    /**
+     * Smallest Levenshtein distance between {@code query} and any prefix of {@code name}, so a half-typed name with
+     * a typo still matches. Returns {@code max + 1} as soon as it is known to exceed {@code max}.
+     */
+    private static int prefixDistance(String query, String name, int max) {
+        int n = Math.min(name.length(), query.length() + max);
+        if (query.length() - n > max) return max + 1;
+        int[] prev = new int[n + 1];
+        int[] cur = new int[n + 1];
+        for (int j = 0; j <= n; j++) prev[j] = j;
+        for (int i = 1; i <= query.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= n; j++) {
+                int cost = query.charAt(i - 1) == name.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            if (rowMin > max) return max + 1;
+            int[] tmp = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        int best = max + 1;
+        for (int j = 0; j <= n; j++) best = Math.min(best, prev[j]);
+        return best;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,119 @@
+package jinzo.worldy.client.utils;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resolves UUIDs to usernames concurrently on virtual threads. The number of requests in flight is capped by
+ * {@code concurrency} and the request rate by a shared {@link TokenBucket}.
+ * <p>
+ * Mojang only offers a bulk endpoint for name to UUID, so UUID to name lookups are one request each.
+ */
+public final class NameResolver {
+
+    public static final String MOJANG_PROFILE_URL = "https://sessionserver.mojang.com/session/minecraft/profile/";
+
+    // sessionserver allows roughly 600 profile requests per 10 minutes per IP
+    private static final TokenBucket MOJANG_LIMIT = new TokenBucket(10, 1.0);
+
+    private final HttpClient http;
+    private final String profileUrl;
+    private final int concurrency;
+    private final TokenBucket limiter;
+
+    public NameResolver(HttpClient http, String profileUrl, int concurrency, TokenBucket limiter) {
+        this.http = http;
+        this.profileUrl = profileUrl;
+        this.concurrency = Math.max(1, concurrency);
+        this.limiter = limiter;
+    }
+
+    public static NameResolver mojang(int concurrency) {
+        return new NameResolver(HttpHelper.client(), MOJANG_PROFILE_URL, concurrency, MOJANG_LIMIT);
+    }
+
+    /** Names that were found, and UUIDs Mojang positively reported as unknown. Anything else failed. */
+    public record Result(Map<UUID, String> names, Set<UUID> notFound) {}
+
+    /**
+     * Looks up every UUID and blocks until all lookups finished. Once the breaker for sessionserver opens, the
+     * remaining lookups are skipped instead of each waiting for a timeout. Interrupting the caller aborts the
+     * lookups still in flight.
+     */
+    public Result resolveAll(Collection<UUID> uuids) throws InterruptedException {
+        Map<UUID, String> resolved = new ConcurrentHashMap<>();
+        Set<UUID> notFound = ConcurrentHashMap.newKeySet();
+        if (uuids.isEmpty()) return new Result(resolved, notFound);
+
+        AtomicBoolean unavailable = new AtomicBoolean(false);
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (UUID uuid : new LinkedHashSet<>(uuids)) {
+                    permits.acquire();
+                    if (unavailable.get()) break;
+                    workers.submit(() -> {
+                        try {
+                            limiter.acquire();
+                            String name = fetchName(uuid);
+                            if (name != null) resolved.put(uuid, name);
+                            else notFound.add(uuid);
+                        } catch (HttpHelper.UnavailableException e) {
+                            unavailable.set(true);
+                        } catch (IOException e) {
+                            System.err.println("Error fetching from Mojang API for UUID " + uuid + ": " + e.getMessage());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                // Cancelled while waiting for a permit: interrupt the lookups in flight, close() would wait them out
+                workers.shutdownNow();
+                throw e;
+            }
+        }
+        return new Result(resolved, notFound);
+    }
+
+    /** Returns the name, or null if the profile does not exist. Throws on anything that is not a clear answer. */
+    private String fetchName(UUID uuid) throws IOException, InterruptedException {
+        PerfMonitor.NetworkTimer timer = PerfMonitor.startNetwork("sessionserver");
+        boolean success = false;
+        try {
+            HttpResponse<String> response = HttpHelper.send(http,
+                    HttpHelper.get(profileUrl + uuid.toString().replace("-", "")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 204 || response.statusCode() == 404) {
+                success = true;
+                return null;
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException("Mojang API returned: " + response.statusCode());
+            }
+
+            JsonObject jsonObject;
+            try {
+                jsonObject = JsonParser.parseString(response.body()).getAsJsonObject();
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed profile response", e);
+            }
+            success = true;
+            return jsonObject.has("name") ? jsonObject.get("name").getAsString() : null;
+        } finally {
+            timer.finish(success);
+        }
+    }
+}
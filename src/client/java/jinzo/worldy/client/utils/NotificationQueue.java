@@ -0,0 +1,110 @@
+package jinzo.worldy.client.utils;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.HoverEvent;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batches join and leave notifications. Events are collected for {@link #WINDOW_TICKS}; small batches are shown one
+ * line per player, larger ones collapse into a single summary line with the names on hover. At most
+ * {@link #LINES_PER_SECOND} lines are sent to chat per second, the rest wait for the next second.
+ * Client thread only.
+ */
+public final class NotificationQueue {
+
+    private static final int WINDOW_TICKS = 20;
+    private static final int LINES_PER_SECOND = 4;
+    private static final int INDIVIDUAL_LIMIT = 3;
+    private static final int HOVER_NAME_LIMIT = 60;
+    // The server sends the whole tab list right after joining; those are not real joins
+    private static final int JOIN_GRACE_TICKS = 100;
+
+    private static final List<String> joins = new ArrayList<>();
+    private static final List<String> leaves = new ArrayList<>();
+    private static final ArrayDeque<Text> outbox = new ArrayDeque<>();
+    private static int windowTicks = -1;
+    private static int budget = LINES_PER_SECOND;
+    private static int budgetTicks = 0;
+    private static int graceTicks = 0;
+
+    private NotificationQueue() {}
+
+    public static void init() {
+        TickScheduler.register("notifications", 1, NotificationQueue::tick);
+    }
+
+    public static void onConnected() {
+        clear();
+        graceTicks = JOIN_GRACE_TICKS;
+    }
+
+    public static void clear() {
+        joins.clear();
+        leaves.clear();
+        outbox.clear();
+        windowTicks = -1;
+    }
+
+    public static void enqueueJoin(String name) {
+        if (graceTicks > 0) return;
+        joins.add(name);
+        if (windowTicks < 0) windowTicks = 0;
+    }
+
+    public static void enqueueLeave(String name) {
+        leaves.add(name);
+        if (windowTicks < 0) windowTicks = 0;
+    }
+
+    private static void tick(MinecraftClient client) {
+        if (graceTicks > 0) graceTicks--;
+        if (++budgetTicks >= 20) {
+            budgetTicks = 0;
+            budget = LINES_PER_SECOND;
+        }
+
+        if (windowTicks >= 0 && ++windowTicks >= WINDOW_TICKS) {
+            windowTicks = -1;
+            collect(joins, "§7[§a+§7] ", " joined");
+            collect(leaves, "§7[§c-§7] ", " left");
+        }
+
+        if (outbox.isEmpty() || client.player == null) return;
+        while (budget > 0 && !outbox.isEmpty()) {
+            client.player.sendMessage(outbox.poll(), false);
+            budget--;
+        }
+    }
+
+    private static void collect(List<String> names, String prefix, String verb) {
+        if (names.isEmpty()) return;
+
+        if (names.size() <= INDIVIDUAL_LIMIT && outbox.size() + names.size() <= LINES_PER_SECOND) {
+            for (String name : names) outbox.add(Text.literal(prefix + name));
+        } else {
+            outbox.add(summary(names, prefix, verb));
+        }
+        names.clear();
+    }
+
+    private static Text summary(List<String> names, String prefix, String verb) {
+        MutableText hover = Text.literal("");
+        int shown = Math.min(names.size(), HOVER_NAME_LIMIT);
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) hover.append(Text.literal("\n"));
+            hover.append(Text.literal(names.get(i)).formatted(Formatting.GRAY));
+        }
+        if (names.size() > shown) {
+            hover.append(Text.literal("\n... and " + (names.size() - shown) + " more").formatted(Formatting.DARK_GRAY));
+        }
+
+        return Text.literal(prefix + names.size() + " players" + verb + " §8(hover)")
+                .styled(style -> style.withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, hover)));
+    }
+}
@@ -0,0 +1,74 @@
+package jinzo.worldy.client.utils;
+
+import java.util.Arrays;
+
+/**
+ * Builds the guide polyline drawn by {@link WaypointRenderer}. Points are packed as {@code x, y, z} triples so the
+ * geometry can be cached and redrawn every frame without allocating.
+ */
+public final class PathGeometry {
+
+    private PathGeometry() {}
+
+    /**
+     * Straight trail from the start towards the target, one point every {@code spacing} blocks and at most
+     * {@code maxBlocks} blocks long. The target itself is the last point if it is within reach.
+     */
+    public static double[] straightLine(double sx, double sy, double sz,
+                                        double tx, double ty, double tz,
+                                        int maxBlocks, double spacing) {
+        double dx = tx - sx, dy = ty - sy, dz = tz - sz;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (distance <= 0.001) return new double[0];
+
+        double reach = Math.min(maxBlocks, distance);
+        int steps = (int) Math.ceil(reach / spacing);
+        double[] points = new double[(steps + 1) * 3];
+        for (int i = 0; i <= steps; i++) {
+            double t = Math.min(i * spacing, reach) / distance;
+            points[i * 3] = sx + dx * t;
+            points[i * 3 + 1] = sy + dy * t;
+            points[i * 3 + 2] = sz + dz * t;
+        }
+        return points;
+    }
+
+    /**
+     * Trail along a planned route: from the start to the route point after {@code from}, then along the route until
+     * {@code maxBlocks} blocks have been covered.
+     */
+    public static double[] alongRoute(double sx, double sy, double sz, double[] route, int from, int maxBlocks) {
+        int count = route.length / 3;
+        if (from + 1 >= count) return new double[0];
+
+        double[] points = new double[(count - from + 1) * 3];
+        points[0] = sx;
+        points[1] = sy;
+        points[2] = sz;
+        int n = 1;
+        double remaining = maxBlocks;
+        double px = sx, py = sy, pz = sz;
+
+        for (int i = from + 1; i < count && remaining > 0; i++) {
+            double x = route[i * 3], y = route[i * 3 + 1], z = route[i * 3 + 2];
+            double dx = x - px, dy = y - py, dz = z - pz;
+            double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (length > remaining) {
+                double t = remaining / length;
+                x = px + dx * t;
+                y = py + dy * t;
+                z = pz + dz * t;
+                length = remaining;
+            }
+            points[n * 3] = x;
+            points[n * 3 + 1] = y;
+            points[n * 3 + 2] = z;
+            n++;
+            remaining -= length;
+            px = x;
+            py = y;
+            pz = z;
+        }
+        return Arrays.copyOf(points, n * 3);
+    }
+}
@@ -0,0 +1,208 @@
+package jinzo.worldy.client.utils;
+
+import java.util.*;
+
+/**
+ * A* over {@link ChunkSnapshot} cells for a player walking on the ground: level moves in eight directions,
+ * one-block step ups, drops of up to three blocks and swimming. Each search is bounded by a node count and a
+ * deadline; when either runs out, or the goal lies outside the captured chunks, the route to the node closest to
+ * the goal is returned instead.
+ */
+public final class PathPlanner {
+
+    public interface CellSource {
+        byte cell(int x, int y, int z);
+    }
+
+    public static final class Result {
+        private final double[] points;
+        private final boolean complete;
+
+        Result(double[] points, boolean complete) {
+            this.points = points;
+            this.complete = complete;
+        }
+
+        /** Route as packed {@code x, y, z} triples at block centres, starting at the player. */
+        public double[] getPoints() {
+            return points;
+        }
+
+        /** True if the route reaches the goal rather than the closest reachable node. */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    private static final int MAX_DROP = 3;
+    private static final double HEURISTIC_WEIGHT = 1.2;
+    private static final double DIAGONAL = Math.sqrt(2);
+    private static final int[][] DIRECTIONS = {
+            {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+
+    private static final class Node {
+        final int x, y, z;
+        double g;
+        double h;
+        Node parent;
+        boolean closed;
+
+        Node(int x, int y, int z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    private record Open(Node node, double f) {}
+
+    private final CellSource cells;
+    private final int maxNodes;
+    private final long deadline;
+
+    private PathPlanner(CellSource cells, int maxNodes, long maxNanos) {
+        this.cells = cells;
+        this.maxNodes = maxNodes;
+        this.deadline = System.nanoTime() + maxNanos;
+    }
+
+    /** Plans from the block the player stands in to the goal block; returns null if the start is not walkable. */
+    public static Result plan(CellSource cells, int sx, int sy, int sz, int gx, int gy, int gz,
+                              int maxNodes, long maxNanos) {
+        return new PathPlanner(cells, maxNodes, maxNanos).search(sx, sy, sz, gx, gy, gz);
+    }
+
+    private Result search(int sx, int sy, int sz, int gx, int gy, int gz) {
+        int startY = findStandableY(sx, sy, sz);
+        if (startY == Integer.MIN_VALUE) return null;
+
+        Map<Long, Node> nodes = new HashMap<>();
+        PriorityQueue<Open> open = new PriorityQueue<>(Comparator.comparingDouble(Open::f));
+
+        Node start = new Node(sx, startY, sz);
+        start.h = heuristic(sx, startY, sz, gx, gy, gz);
+        nodes.put(pack(sx, startY, sz), start);
+        open.add(new Open(start, start.h * HEURISTIC_WEIGHT));
+
+        Node best = start;
+        int expanded = 0;
+        while (!open.isEmpty()) {
+            if (nodes.size() >= maxNodes) break;
+            if ((++expanded & 255) == 0 && System.nanoTime() > deadline) break;
+
+            Node current = open.poll().node;
+            if (current.closed) continue;
+            current.closed = true;
+
+            if (current.h < best.h) best = current;
+            if (isGoal(current, gx, gy, gz)) return new Result(toPoints(current), true);
+
+            for (int[] d : DIRECTIONS) expand(current, d[0], d[1], gx, gy, gz, nodes, open);
+        }
+        return new Result(toPoints(best), isGoal(best, gx, gy, gz));
+    }
+
+    private void expand(Node from, int dx, int dz, int gx, int gy, int gz,
+                        Map<Long, Node> nodes, PriorityQueue<Open> open) {
+        int nx = from.x + dx, nz = from.z + dz, y = from.y;
+        boolean diagonal = dx != 0 && dz != 0;
+        double base = diagonal ? DIAGONAL : 1.0;
+
+        if (diagonal && !(passable(from.x + dx, y, from.z) && passable(from.x, y, from.z + dz))) return;
+
+        if (standable(nx, y, nz)) {
+            relax(from, nx, y, nz, base * swimFactor(nx, y, nz), gx, gy, gz, nodes, open);
+            return;
+        }
+        if (diagonal) return;
+
+        // Step up onto a block
+        if (passable(from.x, y + 2, from.z) && standable(nx, y + 1, nz)) {
+            relax(from, nx, y + 1, nz, base + 0.5, gx, gy, gz, nodes, open);
+            return;
+        }
+
+        // Walk off an edge and fall a few blocks
+        if (!passable(nx, y, nz) || !passable(nx, y + 1, nz)) return;
+        for (int drop = 1; drop <= MAX_DROP; drop++) {
+            if (standable(nx, y - drop, nz)) {
+                relax(from, nx, y - drop, nz, base + 0.5 * drop, gx, gy, gz, nodes, open);
+                return;
+            }
+            if (!passable(nx, y - drop, nz)) return;
+        }
+    }
+
+    private void relax(Node from, int x, int y, int z, double cost, int gx, int gy, int gz,
+                       Map<Long, Node> nodes, PriorityQueue<Open> open) {
+        long key = pack(x, y, z);
+        Node node = nodes.get(key);
+        double g = from.g + cost;
+        if (node == null) {
+            node = new Node(x, y, z);
+            node.h = heuristic(x, y, z, gx, gy, gz);
+            nodes.put(key, node);
+        } else if (node.closed || g >= node.g) {
+            return;
+        }
+        node.g = g;
+        node.parent = from;
+        open.add(new Open(node, g + node.h * HEURISTIC_WEIGHT));
+    }
+
+    private int findStandableY(int x, int y, int z) {
+        if (standable(x, y, z)) return y;
+        if (standable(x, y + 1, z)) return y + 1;
+        for (int down = 1; down <= MAX_DROP + 1; down++) {
+            if (standable(x, y - down, z)) return y - down;
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    private boolean standable(int x, int y, int z) {
+        byte feet = cells.cell(x, y, z);
+        if (!isPassable(feet) || !passable(x, y + 1, z)) return false;
+        return feet == ChunkSnapshot.WATER || cells.cell(x, y - 1, z) == ChunkSnapshot.SOLID;
+    }
+
+    private boolean passable(int x, int y, int z) {
+        return isPassable(cells.cell(x, y, z));
+    }
+
+    private double swimFactor(int x, int y, int z) {
+        return cells.cell(x, y, z) == ChunkSnapshot.WATER ? 2.0 : 1.0;
+    }
+
+    private static boolean isPassable(byte type) {
+        return type == ChunkSnapshot.OPEN || type == ChunkSnapshot.WATER;
+    }
+
+    private static boolean isGoal(Node n, int gx, int gy, int gz) {
+        int dx = n.x - gx, dz = n.z - gz;
+        return dx * dx + dz * dz <= 2 && Math.abs(n.y - gy) <= 2;
+    }
+
+    private static double heuristic(int x, int y, int z, int gx, int gy, int gz) {
+        int dx = Math.abs(x - gx), dz = Math.abs(z - gz);
+        double octile = Math.max(dx, dz) + (DIAGONAL - 1) * Math.min(dx, dz);
+        return Math.max(octile, Math.abs(y - gy) * 0.8);
+    }
+
+    private static double[] toPoints(Node end) {
+        int count = 0;
+        for (Node n = end; n != null; n = n.parent) count++;
+        double[] points = new double[count * 3];
+        int i = count - 1;
+        for (Node n = end; n != null; n = n.parent, i--) {
+            points[i * 3] = n.x + 0.5;
+            points[i * 3 + 1] = n.y + 0.3;
+            points[i * 3 + 2] = n.z + 0.5;
+        }
+        return points;
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+}
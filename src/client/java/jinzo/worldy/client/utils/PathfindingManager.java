@@ -0,0 +1,218 @@
+package jinzo.worldy.client.utils;
+
+import jinzo.worldy.client.WorldyClient;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a walkable route to the active waypoint. The client thread captures chunk snapshots and decides when to
+ * replan; planning itself runs on the {@code worldy-pathfinder} thread with a node and time budget per request.
+ * <p>
+ * A route is kept while the player follows it. It is only replanned when the target changes, the player strays
+ * from it, a chunk it crosses changes, or a partial route is nearly used up.
+ */
+public final class PathfindingManager {
+
+    public static final class Route {
+        private final Vec3d target;
+        private final double[] points;
+        private final boolean complete;
+        private final Set<Long> chunks;
+
+        Route(Vec3d target, double[] points, boolean complete) {
+            this.target = target;
+            this.points = points;
+            this.complete = complete;
+            this.chunks = new HashSet<>();
+            for (int i = 0; i < points.length; i += 3) {
+                chunks.add(ChunkSnapshot.key(MathHelper.floor(points[i]) >> 4, MathHelper.floor(points[i + 2]) >> 4));
+            }
+        }
+
+        public Vec3d getTarget() {
+            return target;
+        }
+
+        public double[] getPoints() {
+            return points;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    private static final int MAX_NODES = 40_000;
+    private static final long MAX_PLAN_NANOS = 30_000_000L;
+    private static final int MIN_REPLAN_TICKS = 10;
+    private static final double STRAY_DISTANCE_SQ = 3.0 * 3.0;
+    private static final int PARTIAL_REFRESH_POINTS = 16;
+
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "worldy-pathfinder");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private static final ChunkSnapshotCache cache = new ChunkSnapshotCache();
+    private static final AtomicBoolean planning = new AtomicBoolean(false);
+    private static volatile Route route = null;
+    private static volatile int progress = 0;
+
+    // Client thread only
+    private static ClientWorld lastWorld = null;
+    private static Route trackedRoute = null;
+    private static int ticksSincePlan = MIN_REPLAN_TICKS;
+    private static boolean routeInvalidated = false;
+
+    private PathfindingManager() {}
+
+    public static void init() {
+        TickScheduler.register("pathfinding", 1, PathfindingManager::tick);
+        ClientChunkEvents.CHUNK_LOAD.register((world, chunk) -> cache.onChunkLoaded());
+        ClientChunkEvents.CHUNK_UNLOAD.register((world, chunk) ->
+                cache.onChunkUnloaded(chunk.getPos().x, chunk.getPos().z));
+    }
+
+    /** Called on the client thread when the server changes a block. */
+    public static void onBlockChanged(int x, int z) {
+        cache.markDirty(x >> 4, z >> 4);
+    }
+
+    /** The current route if it leads to {@code target}, otherwise null. */
+    public static Route getRoute(Vec3d target) {
+        Route r = route;
+        return r != null && r.target.equals(target) ? r : null;
+    }
+
+    /** Index of the route point the player has most recently reached. */
+    public static int getProgress() {
+        return progress;
+    }
+
+    private static void tick(MinecraftClient client) {
+        if (client.player == null || client.world == null
+                || !WorldyClient.getConfig().waypoint.enabled || !WaypointManager.isActive()) {
+            route = null;
+            trackedRoute = null;
+            return;
+        }
+
+        if (client.world != lastWorld) {
+            lastWorld = client.world;
+            cache.clear();
+            route = null;
+        }
+
+        Vec3d pos = client.player.getPos();
+        boolean captured = cache.tick(client.world, MathHelper.floor(pos.x) >> 4, MathHelper.floor(pos.z) >> 4);
+        ticksSincePlan++;
+
+        Route current = route;
+        if (current != trackedRoute) {
+            trackedRoute = current;
+            progress = 0;
+            routeInvalidated = false;
+        }
+
+        Set<Long> changed = cache.drainChanged();
+        if (current != null && !changed.isEmpty()) {
+            for (Long key : changed) {
+                if (current.chunks.contains(key)) {
+                    routeInvalidated = true;
+                    break;
+                }
+            }
+        }
+
+        Vec3d target = WaypointManager.getWaypoint();
+        boolean needsPlan;
+        if (current == null || !current.target.equals(target)) {
+            needsPlan = true;
+        } else {
+            double strayed = updateProgress(current, pos);
+            int remaining = current.points.length / 3 - progress;
+            needsPlan = routeInvalidated
+                    || strayed > STRAY_DISTANCE_SQ
+                    || (!current.complete && (remaining < PARTIAL_REFRESH_POINTS || captured));
+        }
+
+        if (needsPlan && ticksSincePlan >= MIN_REPLAN_TICKS && planning.compareAndSet(false, true)) {
+            ticksSincePlan = 0;
+            submit(cache.view(), pos, target);
+        }
+    }
+
+    /** Advances the progress index to the nearest point ahead; returns the squared distance to it. */
+    private static double updateProgress(Route r, Vec3d pos) {
+        double[] p = r.points;
+        int count = p.length / 3;
+        int from = Math.max(0, progress - 2);
+        int to = Math.min(count, progress + 24);
+        int bestIndex = progress;
+        double bestDist = Double.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            double dx = p[i * 3] - pos.x, dy = p[i * 3 + 1] - pos.y, dz = p[i * 3 + 2] - pos.z;
+            double d = dx * dx + dy * dy + dz * dz;
+            if (d < bestDist) {
+                bestDist = d;
+                bestIndex = i;
+            }
+        }
+        progress = bestIndex;
+        return bestDist;
+    }
+
+    private static void submit(Map<Long, ChunkSnapshot> snapshots, Vec3d from, Vec3d target) {
+        int sx = MathHelper.floor(from.x), sy = MathHelper.floor(from.y + 0.01), sz = MathHelper.floor(from.z);
+        int gx = MathHelper.floor(target.x), gy = MathHelper.floor(target.y), gz = MathHelper.floor(target.z);
+
+        worker.execute(() -> {
+            try {
+                PerfMonitor.time("path-planner", () -> {
+                    PathPlanner.Result result = PathPlanner.plan(new SnapshotCells(snapshots),
+                            sx, sy, sz, gx, gy, gz, MAX_NODES, MAX_PLAN_NANOS);
+                    if (result != null && target.equals(WaypointManager.getWaypoint())) {
+                        route = new Route(target, result.getPoints(), result.isComplete());
+                    }
+                });
+            } catch (Throwable t) {
+                System.err.println("Waypoint pathfinding failed: " + t.getMessage());
+            } finally {
+                planning.set(false);
+            }
+        });
+    }
+
+    private static final class SnapshotCells implements PathPlanner.CellSource {
+        private final Map<Long, ChunkSnapshot> snapshots;
+        private ChunkSnapshot last;
+
+        SnapshotCells(Map<Long, ChunkSnapshot> snapshots) {
+            this.snapshots = snapshots;
+        }
+
+        @Override
+        public byte cell(int x, int y, int z) {
+            int cx = x >> 4, cz = z >> 4;
+            ChunkSnapshot chunk = last;
+            if (chunk == null || chunk.getChunkX() != cx || chunk.getChunkZ() != cz) {
+                chunk = snapshots.get(ChunkSnapshot.key(cx, cz));
+                if (chunk == null) return ChunkSnapshot.UNKNOWN;
+                last = chunk;
+            }
+            return chunk.get(x, y, z);
+        }
+    }
+}
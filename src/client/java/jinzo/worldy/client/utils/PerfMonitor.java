@@ -0,0 +1,211 @@
+package jinzo.worldy.client.utils;
+
+import com.google.gson.JsonObject;
+import jdk.jfr.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Lightweight instrumentation for Worldy's own work: per-handler latency histograms with allocation totals, and
+ * durations of network calls. Every sample is also emitted as a JFR event, so a flight recording shows Worldy's
+ * share of a stutter next to the game's.
+ */
+public final class PerfMonitor {
+
+    private static final String DUMP_FILE = "perf.jsonl";
+
+    @Name("jinzo.worldy.Handler")
+    @Label("Worldy Handler")
+    @Category("Worldy")
+    @StackTrace(false)
+    public static final class HandlerEvent extends Event {
+        @Label("Handler")
+        public String handler;
+        @Label("Allocated")
+        @DataAmount
+        public long allocatedBytes;
+    }
+
+    @Name("jinzo.worldy.Network")
+    @Label("Worldy Network Call")
+    @Category("Worldy")
+    @StackTrace(false)
+    public static final class NetworkEvent extends Event {
+        @Label("Endpoint")
+        public String endpoint;
+        @Label("Success")
+        public boolean success;
+    }
+
+    /** Latency histogram with power-of-two nanosecond buckets. */
+    public static final class Histogram {
+        private final long[] buckets = new long[64];
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long allocatedBytes;
+        private long failures;
+
+        synchronized void record(long nanos, long allocated, boolean success) {
+            buckets[63 - Long.numberOfLeadingZeros(Math.max(1, nanos))]++;
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            if (allocated > 0) allocatedBytes += allocated;
+            if (!success) failures++;
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getFailures() {
+            return failures;
+        }
+
+        public synchronized double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        public synchronized long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public synchronized double getMeanAllocatedBytes() {
+            return count == 0 ? 0 : (double) allocatedBytes / count;
+        }
+
+        /** Upper bound of the bucket containing the given percentile. */
+        public synchronized long percentileNanos(double p) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(p * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+            return maxNanos;
+        }
+    }
+
+    private static final Map<String, Histogram> handlers = new TreeMap<>();
+    private static final Map<String, Histogram> network = new TreeMap<>();
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() ? bean : null;
+
+    private PerfMonitor() {}
+
+    /** Runs {@code task} and records its latency and allocations under {@code handler}. */
+    public static void time(String handler, Runnable task) {
+        HandlerEvent event = new HandlerEvent();
+        event.begin();
+        long allocBefore = allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocBefore;
+            histogram(handlers, handler).record(nanos, allocated, true);
+            if (event.shouldCommit()) {
+                event.handler = handler;
+                event.allocatedBytes = allocated;
+                event.commit();
+            }
+        }
+    }
+
+    /** Starts timing a network call; call {@link NetworkTimer#finish(boolean)} once it completes. */
+    public static NetworkTimer startNetwork(String endpoint) {
+        return new NetworkTimer(endpoint);
+    }
+
+    public static final class NetworkTimer {
+        private final String endpoint;
+        private final NetworkEvent event = new NetworkEvent();
+        private final long start;
+
+        private NetworkTimer(String endpoint) {
+            this.endpoint = endpoint;
+            event.begin();
+            start = System.nanoTime();
+        }
+
+        public void finish(boolean success) {
+            histogram(network, endpoint).record(System.nanoTime() - start, 0, success);
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint;
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+    public static synchronized Map<String, Histogram> getHandlers() {
+        return new LinkedHashMap<>(handlers);
+    }
+
+    public static synchronized Map<String, Histogram> getNetwork() {
+        return new LinkedHashMap<>(network);
+    }
+
+    public static synchronized void reset() {
+        handlers.clear();
+        network.clear();
+    }
+
+    /** Appends one JSON line per handler and endpoint to {@code config/worldy/perf.jsonl} on the persistence thread. */
+    public static Path dump() {
+        Path file = StorageHelper.resolve(DUMP_FILE);
+        long now = System.currentTimeMillis();
+        Map<String, Histogram> handlerCopy = getHandlers();
+        Map<String, Histogram> networkCopy = getNetwork();
+
+        PersistenceQueue.execute(() -> {
+            try {
+                Files.createDirectories(file.getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (var e : handlerCopy.entrySet()) writeLine(writer, now, "handler", e.getKey(), e.getValue());
+                    for (var e : networkCopy.entrySet()) writeLine(writer, now, "network", e.getKey(), e.getValue());
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to write perf dump: " + e.getMessage());
+            }
+        });
+        return file;
+    }
+
+    private static void writeLine(BufferedWriter writer, long timestamp, String kind, String name, Histogram h)
+            throws IOException {
+        JsonObject json = new JsonObject();
+        json.addProperty("timestamp", timestamp);
+        json.addProperty("kind", kind);
+        json.addProperty("name", name);
+        json.addProperty("count", h.getCount());
+        json.addProperty("failures", h.getFailures());
+        json.addProperty("meanNanos", h.getMeanNanos());
+        json.addProperty("p50Nanos", h.percentileNanos(0.50));
+        json.addProperty("p99Nanos", h.percentileNanos(0.99));
+        json.addProperty("maxNanos", h.getMaxNanos());
+        json.addProperty("meanAllocatedBytes", h.getMeanAllocatedBytes());
+        writer.write(json.toString());
+        writer.newLine();
+    }
+
+    private static synchronized Histogram histogram(Map<String, Histogram> map, String name) {
+        return map.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+}
@@ -0,0 +1,72 @@
+package jinzo.worldy.client.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Write-behind saving for Worldy state. Callers mark a store dirty from any thread; changes made within
+ * {@link #FLUSH_DELAY_MS} of each other are coalesced into a single write on the {@code worldy-persistence} thread.
+ */
+public final class PersistenceQueue {
+
+    private static final long FLUSH_DELAY_MS = 2000;
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "worldy-persistence");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private static final Map<String, Runnable> pending = new LinkedHashMap<>();
+    private static boolean scheduled = false;
+
+    private PersistenceQueue() {}
+
+    /** Schedules {@code writer} to run once after the flush delay; repeated calls with the same key collapse. */
+    public static void markDirty(String key, Runnable writer) {
+        synchronized (pending) {
+            pending.put(key, writer);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        executor.schedule(PersistenceQueue::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Runs one-off I/O, such as appends, on the persistence thread in submission order. */
+    public static void execute(Runnable task) {
+        executor.execute(() -> runSafely(task));
+    }
+
+    /** Writes everything still pending and waits briefly for it, e.g. while the client is shutting down. */
+    public static void flushNow() {
+        try {
+            executor.submit(PersistenceQueue::flush).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+            System.err.println("Failed to flush Worldy state: " + e.getMessage());
+        }
+    }
+
+    private static void flush() {
+        List<Runnable> writers;
+        synchronized (pending) {
+            writers = new ArrayList<>(pending.values());
+            pending.clear();
+            scheduled = false;
+        }
+        for (Runnable writer : writers) runSafely(writer);
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            System.err.println("Worldy persistence task failed: " + t.getMessage());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package jinzo.worldy.client.utils;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * UUID-keyed view of the tab list, fed directly by player-list add/remove packets
+ * (see {@code ClientPlayNetworkHandlerMixin}). The live map is only touched on the client thread; other threads
+ * read the immutable {@link Snapshot} published after each packet.
+ */
+public final class PlayerRoster {
+
+    public interface Listener {
+        default void onJoin(UUID uuid, String name) {}
+
+        default void onLeave(UUID uuid, String name) {}
+    }
+
+    /** Immutable copy of the roster at one point in time. Safe to read from any thread. */
+    public record Snapshot(long version, Map<UUID, String> players) {
+        static final Snapshot EMPTY = new Snapshot(0, Map.of());
+
+        public boolean isOnline(UUID uuid) {
+            return players.containsKey(uuid);
+        }
+
+        public String getName(UUID uuid) {
+            return players.get(uuid);
+        }
+
+        public int size() {
+            return players.size();
+        }
+    }
+
+    private static final Map<UUID, String> players = new HashMap<>();
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static final NameIndex index = new NameIndex();
+    private static final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private static boolean dirty = false;
+
+    private PlayerRoster() {}
+
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void handleAdded(UUID uuid, String name) {
+        if (uuid == null || name == null) return;
+        String previous = players.put(uuid, name);
+        if (name.equals(previous)) return;
+        dirty = true;
+        index.put(uuid, name);
+        if (previous != null) return;
+        for (Listener listener : listeners) listener.onJoin(uuid, name);
+    }
+
+    public static void handleRemoved(Collection<UUID> uuids) {
+        for (UUID uuid : uuids) {
+            String name = players.remove(uuid);
+            if (name == null) continue;
+            dirty = true;
+            index.remove(uuid);
+            for (Listener listener : listeners) listener.onLeave(uuid, name);
+        }
+    }
+
+    /** Drops the roster without publishing leave deltas, e.g. on disconnect. */
+    public static void clear() {
+        players.clear();
+        index.clear();
+        dirty = true;
+        publish();
+    }
+
+    /**
+     * Publishes the current roster for background threads if it changed. Called once per packet rather than per
+     * entry so a full tab list costs a single copy.
+     */
+    public static void publish() {
+        if (!dirty) return;
+        dirty = false;
+        snapshot.set(new Snapshot(snapshot.get().version() + 1, Map.copyOf(players)));
+    }
+
+    /** The latest published roster; the only roster view background threads may use. */
+    public static Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    public static boolean isOnline(UUID uuid) {
+        return players.containsKey(uuid);
+    }
+
+    public static String getName(UUID uuid) {
+        return players.get(uuid);
+    }
+
+    /** Online players whose name matches {@code query}, best match first. */
+    public static List<NameIndex.Match> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    public static int size() {
+        return players.size();
+    }
+}
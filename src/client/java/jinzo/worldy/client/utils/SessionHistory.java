@@ -0,0 +1,407 @@
+package jinzo.worldy.client.utils;
+
+import jinzo.worldy.client.WorldyClient;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Login/logout history built from roster deltas. Per-player data (name, last seen, total online time) lives in
+ * parallel primitive arrays indexed by a dense player id, and closed sessions are buffered in columns and written
+ * to {@code config/worldy/sessions/seg-N.bin}. A per-minute population ring covers the last week.
+ * <p>
+ * Every session row points at the previous row of the same player, and each player remembers their latest row, so
+ * {@link #recentSessions} follows that chain with one positioned read per session instead of scanning segments.
+ * The segment being filled is rewritten on every {@link #flush()} and read back on load.
+ * <p>
+ * Memory is bounded by {@link #MAX_PLAYERS} (oldest players are forgotten first), one segment of buffered rows and
+ * the fixed-size population ring. Client thread only; disk writes go through {@link PersistenceQueue}.
+ */
+public final class SessionHistory {
+
+    public static final int POPULATION_MINUTES = 7 * 24 * 60;
+
+    private static final int SEGMENT_ROWS = 4096;
+    private static final int MAX_SEGMENTS = 128;
+    private static final int MAX_PLAYERS = 20_000;
+    private static final String DIR = "sessions";
+    private static final String INDEX_FILE = "index.bin";
+    private static final int INDEX_MAGIC = 0x57534832; // "WSH2"
+    private static final int SEGMENT_MAGIC = 0x57535332; // "WSS2"
+    private static final long NO_ROW = -1L;
+
+    public record PlayerStats(UUID uuid, String name, long lastSeen, long onlineSince, long totalOnlineMs) {
+        public boolean isOnline() {
+            return onlineSince > 0;
+        }
+    }
+
+    public record Session(long start, long end) {}
+
+    // Player dictionary
+    private static final Map<UUID, Integer> ids = new HashMap<>();
+    private static final Map<String, Integer> idsByName = new HashMap<>();
+    private static UUID[] uuids = new UUID[256];
+    private static String[] names = new String[256];
+    private static long[] lastSeen = new long[256];
+    private static long[] onlineSince = new long[256];
+    private static long[] totalOnline = new long[256];
+    // Latest closed session of each player as (segment << 32 | row), or NO_ROW
+    private static long[] lastRow = new long[256];
+    private static int playerCount = 0;
+
+    // Rows of the segment being filled; UUIDs are stored directly since eviction renumbers player ids
+    private static final long[] rowMsb = new long[SEGMENT_ROWS];
+    private static final long[] rowLsb = new long[SEGMENT_ROWS];
+    private static final long[] rowStart = new long[SEGMENT_ROWS];
+    private static final long[] rowEnd = new long[SEGMENT_ROWS];
+    private static final long[] rowPrev = new long[SEGMENT_ROWS];
+    private static int rows = 0;
+    private static int writtenRows = 0;
+    private static int currentSegment = 0;
+
+    // Population per minute, stored as count + 1 so 0 means "no sample"
+    private static final short[] population = new short[POPULATION_MINUTES];
+    private static long lastSampleMinute = -1;
+
+    private static boolean loaded = false;
+    private static boolean dirty = false;
+
+    private static final int SAMPLE_INTERVAL_TICKS = 20 * 60;
+    private static final int FLUSH_INTERVAL_TICKS = 20 * 60 * 5;
+
+    private SessionHistory() {}
+
+    public static void init() {
+        TickScheduler.register("population", SAMPLE_INTERVAL_TICKS, client -> {
+            if (WorldyClient.isTargetServer()) samplePopulation(PlayerRoster.size(), System.currentTimeMillis());
+        });
+        TickScheduler.register("session-flush", FLUSH_INTERVAL_TICKS, client -> flush());
+    }
+
+    public static void onJoin(UUID uuid, String name, long now) {
+        ensureLoaded();
+        int id = idFor(uuid, name);
+        if (onlineSince[id] == 0) onlineSince[id] = now;
+        lastSeen[id] = now;
+        dirty = true;
+    }
+
+    public static void onLeave(UUID uuid, long now) {
+        ensureLoaded();
+        Integer id = ids.get(uuid);
+        if (id == null || onlineSince[id] == 0) return;
+        closeSession(id, now);
+    }
+
+    /** Ends every open session, e.g. when disconnecting. */
+    public static void closeAll(long now) {
+        if (!loaded) return;
+        for (int id = 0; id < playerCount; id++) {
+            if (onlineSince[id] != 0) closeSession(id, now);
+        }
+    }
+
+    public static void samplePopulation(int online, long now) {
+        ensureLoaded();
+        long minute = now / 60_000L;
+        if (minute == lastSampleMinute) return;
+        if (lastSampleMinute >= 0 && minute > lastSampleMinute) {
+            // Clear the slots of minutes without a sample so stale data from a week ago does not show through
+            long gap = Math.min(minute - lastSampleMinute - 1, POPULATION_MINUTES);
+            for (long m = minute - gap; m < minute; m++) population[(int) (m % POPULATION_MINUTES)] = 0;
+        }
+        population[(int) (minute % POPULATION_MINUTES)] = (short) Math.min(online + 1, Short.MAX_VALUE);
+        lastSampleMinute = minute;
+        dirty = true;
+    }
+
+    public static PlayerStats lookup(String name) {
+        ensureLoaded();
+        Integer id = idsByName.get(name.toLowerCase(Locale.ROOT));
+        if (id == null) return null;
+        return new PlayerStats(uuids[id], names[id], lastSeen[id], onlineSince[id], totalOnline[id]);
+    }
+
+    /**
+     * Up to {@code limit} closed sessions of {@code name}, newest first. Sessions that aged out with their segment
+     * are not returned.
+     */
+    public static List<Session> recentSessions(String name, int limit) {
+        ensureLoaded();
+        Integer id = idsByName.get(name.toLowerCase(Locale.ROOT));
+        if (id == null) return List.of();
+        UUID uuid = uuids[id];
+
+        List<Session> result = new ArrayList<>(limit);
+        long ref = lastRow[id];
+        Path dir = StorageHelper.getDataDir().resolve(DIR);
+        while (ref != NO_ROW && result.size() < limit) {
+            int segment = (int) (ref >>> 32);
+            int row = (int) ref;
+            if (segment <= currentSegment - MAX_SEGMENTS) break;
+
+            if (segment == currentSegment) {
+                if (row >= rows || rowMsb[row] != uuid.getMostSignificantBits()
+                        || rowLsb[row] != uuid.getLeastSignificantBits()) break;
+                result.add(new Session(rowStart[row], rowEnd[row]));
+                ref = rowPrev[row];
+                continue;
+            }
+
+            try (RandomAccessFile file = new RandomAccessFile(dir.resolve("seg-" + segment + ".bin").toFile(), "r")) {
+                if (file.readInt() != SEGMENT_MAGIC) break;
+                int count = file.readInt();
+                if (row >= count) break;
+                long msb = readColumn(file, count, 0, row);
+                long lsb = readColumn(file, count, 1, row);
+                if (msb != uuid.getMostSignificantBits() || lsb != uuid.getLeastSignificantBits()) break;
+                result.add(new Session(readColumn(file, count, 2, row), readColumn(file, count, 3, row)));
+                ref = readColumn(file, count, 4, row);
+            } catch (FileNotFoundException e) {
+                break;
+            } catch (IOException e) {
+                System.err.println("Failed to read session segment " + segment + ": " + e.getMessage());
+                break;
+            }
+        }
+        return result;
+    }
+
+    // Segments hold five long columns (msb, lsb, start, end, prev) after an 8-byte header
+    private static long readColumn(RandomAccessFile file, int count, int column, int row) throws IOException {
+        file.seek(8 + ((long) column * count + row) * 8);
+        return file.readLong();
+    }
+
+    /**
+     * Population samples for the last {@code minutes} minutes, oldest first; -1 where nothing was recorded.
+     */
+    public static int[] population(int minutes, long now) {
+        ensureLoaded();
+        minutes = Math.min(minutes, POPULATION_MINUTES);
+        int[] result = new int[minutes];
+        long current = now / 60_000L;
+        for (int i = 0; i < minutes; i++) {
+            long minute = current - (minutes - 1 - i);
+            boolean recorded = lastSampleMinute >= 0 && minute <= lastSampleMinute
+                    && lastSampleMinute - minute < POPULATION_MINUTES;
+            result[i] = recorded ? population[(int) (minute % POPULATION_MINUTES)] - 1 : -1;
+        }
+        return result;
+    }
+
+    /** Persists the sessions buffered since the last flush, the player index and the population ring. */
+    public static void flush() {
+        if (!loaded) return;
+        if (rows > writtenRows) writeSegment();
+        if (!dirty) return;
+        dirty = false;
+
+        int count = playerCount;
+        UUID[] u = Arrays.copyOf(uuids, count);
+        String[] n = Arrays.copyOf(names, count);
+        long[] seen = Arrays.copyOf(lastSeen, count);
+        long[] total = Arrays.copyOf(totalOnline, count);
+        long[] last = Arrays.copyOf(lastRow, count);
+        short[] pop = population.clone();
+        long sampleMinute = lastSampleMinute;
+        int segment = currentSegment;
+
+        PersistenceQueue.execute(() -> {
+            try {
+                StorageHelper.writeAtomically(StorageHelper.getDataDir().resolve(DIR).resolve(INDEX_FILE), raw -> {
+                    DataOutputStream out = new DataOutputStream(raw);
+                    out.writeInt(INDEX_MAGIC);
+                    out.writeInt(segment);
+                    out.writeInt(count);
+                    for (int i = 0; i < count; i++) {
+                        out.writeLong(u[i].getMostSignificantBits());
+                        out.writeLong(u[i].getLeastSignificantBits());
+                        out.writeUTF(n[i]);
+                        out.writeLong(seen[i]);
+                        out.writeLong(total[i]);
+                        out.writeLong(last[i]);
+                    }
+                    out.writeLong(sampleMinute);
+                    for (short s : pop) out.writeShort(s);
+                    out.flush();
+                });
+            } catch (IOException e) {
+                System.err.println("Failed to save session index: " + e.getMessage());
+            }
+        });
+    }
+
+    private static void closeSession(int id, long now) {
+        long start = onlineSince[id];
+        onlineSince[id] = 0;
+        lastSeen[id] = now;
+        totalOnline[id] += Math.max(0, now - start);
+        dirty = true;
+
+        rowMsb[rows] = uuids[id].getMostSignificantBits();
+        rowLsb[rows] = uuids[id].getLeastSignificantBits();
+        rowStart[rows] = start;
+        rowEnd[rows] = now;
+        rowPrev[rows] = lastRow[id];
+        lastRow[id] = ((long) currentSegment << 32) | rows;
+        if (++rows == SEGMENT_ROWS) {
+            writeSegment();
+            currentSegment++;
+            rows = 0;
+            writtenRows = 0;
+        }
+    }
+
+    private static int idFor(UUID uuid, String name) {
+        Integer existing = ids.get(uuid);
+        if (existing != null) {
+            if (!names[existing].equals(name)) {
+                idsByName.remove(names[existing].toLowerCase(Locale.ROOT), existing);
+                names[existing] = name;
+                idsByName.put(name.toLowerCase(Locale.ROOT), existing);
+            }
+            return existing;
+        }
+
+        if (playerCount == MAX_PLAYERS) evictOldest();
+        if (playerCount == uuids.length) grow(uuids.length * 2);
+        int id = playerCount++;
+        uuids[id] = uuid;
+        names[id] = name;
+        lastSeen[id] = 0;
+        onlineSince[id] = 0;
+        totalOnline[id] = 0;
+        lastRow[id] = NO_ROW;
+        ids.put(uuid, id);
+        idsByName.put(name.toLowerCase(Locale.ROOT), id);
+        return id;
+    }
+
+    /** Forgets the least recently seen tenth of offline players and renumbers the rest. */
+    private static void evictOldest() {
+        Integer[] order = new Integer[playerCount];
+        for (int i = 0; i < playerCount; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(i -> onlineSince[i] != 0 ? Long.MAX_VALUE : lastSeen[i]));
+        boolean[] drop = new boolean[playerCount];
+        for (int i = 0; i < MAX_PLAYERS / 10; i++) {
+            if (onlineSince[order[i]] == 0) drop[order[i]] = true;
+        }
+
+        ids.clear();
+        idsByName.clear();
+        int kept = 0;
+        for (int i = 0; i < playerCount; i++) {
+            if (drop[i]) continue;
+            uuids[kept] = uuids[i];
+            names[kept] = names[i];
+            lastSeen[kept] = lastSeen[i];
+            onlineSince[kept] = onlineSince[i];
+            totalOnline[kept] = totalOnline[i];
+            lastRow[kept] = lastRow[i];
+            ids.put(uuids[kept], kept);
+            idsByName.put(names[kept].toLowerCase(Locale.ROOT), kept);
+            kept++;
+        }
+        Arrays.fill(uuids, kept, playerCount, null);
+        Arrays.fill(names, kept, playerCount, null);
+        playerCount = kept;
+    }
+
+    private static void grow(int capacity) {
+        uuids = Arrays.copyOf(uuids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        lastSeen = Arrays.copyOf(lastSeen, capacity);
+        onlineSince = Arrays.copyOf(onlineSince, capacity);
+        totalOnline = Arrays.copyOf(totalOnline, capacity);
+        lastRow = Arrays.copyOf(lastRow, capacity);
+    }
+
+    /**
+     * Writes the rows of the current segment in columns, replacing the earlier partial copy, and drops the segment
+     * that falls out of the retention window.
+     */
+    private static void writeSegment() {
+        int count = rows;
+        long[][] columns = {
+                Arrays.copyOf(rowMsb, count), Arrays.copyOf(rowLsb, count),
+                Arrays.copyOf(rowStart, count), Arrays.copyOf(rowEnd, count), Arrays.copyOf(rowPrev, count)
+        };
+        int segment = currentSegment;
+        writtenRows = count;
+        dirty = true;
+
+        PersistenceQueue.execute(() -> {
+            Path dir = StorageHelper.getDataDir().resolve(DIR);
+            try {
+                StorageHelper.writeAtomically(dir.resolve("seg-" + segment + ".bin"), raw -> {
+                    DataOutputStream out = new DataOutputStream(raw);
+                    out.writeInt(SEGMENT_MAGIC);
+                    out.writeInt(count);
+                    for (long[] column : columns) {
+                        for (long v : column) out.writeLong(v);
+                    }
+                    out.flush();
+                });
+                Files.deleteIfExists(dir.resolve("seg-" + (segment - MAX_SEGMENTS) + ".bin"));
+            } catch (IOException e) {
+                System.err.println("Failed to write session segment: " + e.getMessage());
+            }
+        });
+    }
+
+    private static void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+
+        Path file = StorageHelper.getDataDir().resolve(DIR).resolve(INDEX_FILE);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != INDEX_MAGIC) return;
+            currentSegment = in.readInt();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                String name = in.readUTF();
+                int id = idFor(uuid, name);
+                lastSeen[id] = in.readLong();
+                totalOnline[id] = in.readLong();
+                lastRow[id] = in.readLong();
+            }
+            lastSampleMinute = in.readLong();
+            for (int i = 0; i < POPULATION_MINUTES; i++) population[i] = in.readShort();
+        } catch (NoSuchFileException ignored) {
+            return;
+        } catch (IOException e) {
+            System.err.println("Failed to load session index: " + e.getMessage());
+            return;
+        }
+        loadCurrentSegment(file.resolveSibling("seg-" + currentSegment + ".bin"));
+    }
+
+    /** Reads the partially filled segment back into the row buffer so new sessions continue it. */
+    private static void loadCurrentSegment(Path file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SEGMENT_MAGIC) return;
+            int count = in.readInt();
+            if (count < 0 || count > SEGMENT_ROWS) return;
+            for (long[] column : new long[][]{rowMsb, rowLsb, rowStart, rowEnd, rowPrev}) {
+                for (int i = 0; i < count; i++) column[i] = in.readLong();
+            }
+            rows = count;
+            writtenRows = count;
+        } catch (NoSuchFileException ignored) {
+        } catch (IOException e) {
+            System.err.println("Failed to load session segment: " + e.getMessage());
+            return;
+        }
+
+        // The segment filled up before the index recorded the next one
+        if (rows == SEGMENT_ROWS) {
+            currentSegment++;
+            rows = 0;
+            writtenRows = 0;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package jinzo.worldy.client.utils;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Name cache and staff-fetch bookkeeping shared by every Worldy instance on this machine, kept in the memory-mapped
+ * file {@code config/worldy/shared.cache}.
+ * <p>
+ * Names live in a fixed-size open-addressing table of 64-byte slots. Readers never lock: each slot carries a
+ * sequence number that writers make odd while they rewrite the slot, and a reader retries if it saw an odd or
+ * changed sequence. Writers serialise on an exclusive lock over the whole file, which covers other processes as
+ * well as other threads of this one (the latter through the class monitor, since file locks are per process).
+ * <p>
+ * The header also records when the staff document was last validated and which instance is fetching it, so
+ * several clients started together do only one request.
+ */
+public final class SharedCache {
+
+    public record Entry(String name, long expiresAt) {}
+
+    private static final String FILE_NAME = "shared.cache";
+    private static final int MAGIC = 0x57534331; // "WSC1"
+    private static final int CAPACITY = 16384; // power of two
+    private static final int MAX_PROBE = 32;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_CAPACITY = 4;
+    private static final int H_STAFF_VALIDATED = 8;
+    private static final int H_STAFF_LEASE = 16;
+
+    private static final int SLOT_BYTES = 64;
+    private static final int S_MSB = 0;
+    private static final int S_LSB = 8;
+    private static final int S_EXPIRES = 16;
+    private static final int S_SEQ = 24;
+    private static final int S_LENGTH = 28; // 0 marks a negative entry
+    private static final int S_NAME = 32;
+    private static final int MAX_NAME_BYTES = SLOT_BYTES - S_NAME;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private static SharedCache instance;
+    private static boolean opened = false;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buf;
+    private final boolean created;
+
+    private SharedCache(FileChannel channel, MappedByteBuffer buf, boolean created) {
+        this.channel = channel;
+        this.buf = buf;
+        this.created = created;
+    }
+
+    /** The shared cache, opened on first use; null if the file cannot be mapped, in which case callers stay local. */
+    public static synchronized SharedCache get() {
+        if (opened) return instance;
+        opened = true;
+        try {
+            instance = open(StorageHelper.resolve(FILE_NAME));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to open shared cache, names stay local to this instance: " + e.getMessage());
+        }
+        return instance;
+    }
+
+    private static SharedCache open(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = HEADER_BYTES + (long) CAPACITY * SLOT_BYTES;
+        boolean created = false;
+        try (FileLock ignored = channel.lock()) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if ((int) INT.getVolatile(buf, H_MAGIC) != MAGIC || (int) INT.getVolatile(buf, H_CAPACITY) != CAPACITY) {
+                // New or foreign file: start from an empty table
+                for (int i = 0; i < size; i += 8) buf.putLong(i, 0L);
+                INT.setVolatile(buf, H_CAPACITY, CAPACITY);
+                INT.setVolatile(buf, H_MAGIC, MAGIC);
+                buf.force();
+                created = true;
+            }
+            return new SharedCache(channel, buf, created);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** True if this process created the file, i.e. older per-instance data may need importing. */
+    public boolean isCreated() {
+        return created;
+    }
+
+    /** Returns the live entry for {@code uuid}, or null if there is none or it expired. */
+    public Entry lookup(UUID uuid, long now) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        int home = hash(msb, lsb);
+        for (int i = 0; i < MAX_PROBE; i++) {
+            int base = slotOffset(home + i);
+            for (int attempt = 0; attempt < 4; attempt++) {
+                int seq = (int) INT.getAcquire(buf, base + S_SEQ);
+                if ((seq & 1) != 0) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                long slotMsb = buf.getLong(base + S_MSB);
+                long slotLsb = buf.getLong(base + S_LSB);
+                long expiresAt = buf.getLong(base + S_EXPIRES);
+                int length = buf.getInt(base + S_LENGTH);
+                String name = null;
+                if (length > 0 && length <= MAX_NAME_BYTES) {
+                    byte[] bytes = new byte[length];
+                    buf.get(base + S_NAME, bytes);
+                    name = new String(bytes, StandardCharsets.UTF_8);
+                }
+                VarHandle.acquireFence();
+                if ((int) INT.getVolatile(buf, base + S_SEQ) != seq) continue;
+
+                if (slotMsb == 0 && slotLsb == 0) return null; // end of the probe chain
+                if (slotMsb != msb || slotLsb != lsb) break;
+                return expiresAt > now ? new Entry(name, expiresAt) : null;
+            }
+        }
+        return null;
+    }
+
+    /** Stores a name, or a negative entry when {@code name} is null, visible to every instance straight away. */
+    public void put(UUID uuid, String name, long expiresAt) {
+        byte[] bytes = name != null ? name.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (bytes.length > MAX_NAME_BYTES) return;
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        long now = System.currentTimeMillis();
+
+        synchronized (SharedCache.class) {
+            try (FileLock ignored = channel.lock()) {
+                int home = hash(msb, lsb);
+                int target = -1;
+                int victim = -1;
+                long oldestExpiry = Long.MAX_VALUE;
+                for (int i = 0; i < MAX_PROBE; i++) {
+                    int base = slotOffset(home + i);
+                    long slotMsb = buf.getLong(base + S_MSB);
+                    long slotLsb = buf.getLong(base + S_LSB);
+                    if ((slotMsb == msb && slotLsb == lsb) || (slotMsb == 0 && slotLsb == 0)) {
+                        target = base;
+                        break;
+                    }
+                    // Chain is full so far; remember the slot that expires first (expired ones first of all)
+                    long slotExpires = buf.getLong(base + S_EXPIRES);
+                    if (slotExpires < oldestExpiry) {
+                        oldestExpiry = slotExpires;
+                        victim = base;
+                    }
+                }
+                if (target < 0) target = victim;
+
+                int seq = (int) INT.getVolatile(buf, target + S_SEQ) | 1;
+                INT.setVolatile(buf, target + S_SEQ, seq);
+                buf.putLong(target + S_MSB, msb);
+                buf.putLong(target + S_LSB, lsb);
+                buf.putLong(target + S_EXPIRES, expiresAt);
+                buf.putInt(target + S_LENGTH, bytes.length);
+                buf.put(target + S_NAME, bytes);
+                INT.setRelease(buf, target + S_SEQ, seq + 1);
+            } catch (IOException e) {
+                System.err.println("Failed to update shared cache: " + e.getMessage());
+            }
+        }
+    }
+
+    /** When any instance last fetched or revalidated the staff document, in epoch millis. */
+    public long getStaffValidatedAt() {
+        return (long) LONG.getVolatile(buf, H_STAFF_VALIDATED);
+    }
+
+    public void setStaffValidatedAt(long millis) {
+        synchronized (SharedCache.class) {
+            try (FileLock ignored = channel.lock()) {
+                if (millis > (long) LONG.getVolatile(buf, H_STAFF_VALIDATED)) {
+                    LONG.setVolatile(buf, H_STAFF_VALIDATED, millis);
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to update shared cache: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Claims the right to fetch the staff document for {@code leaseMillis}. Returns false while another instance
+     * holds an unexpired claim; that instance publishes its result through {@link #getStaffValidatedAt()}.
+     */
+    public boolean tryClaimStaffFetch(long leaseMillis) {
+        synchronized (SharedCache.class) {
+            try (FileLock ignored = channel.lock()) {
+                long now = System.currentTimeMillis();
+                if ((long) LONG.getVolatile(buf, H_STAFF_LEASE) > now) return false;
+                LONG.setVolatile(buf, H_STAFF_LEASE, now + leaseMillis);
+                return true;
+            } catch (IOException e) {
+                return true;
+            }
+        }
+    }
+
+    public void releaseStaffFetch() {
+        synchronized (SharedCache.class) {
+            try (FileLock ignored = channel.lock()) {
+                LONG.setVolatile(buf, H_STAFF_LEASE, 0L);
+            } catch (IOException e) {
+                System.err.println("Failed to update shared cache: " + e.getMessage());
+            }
+        }
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int slotOffset(int index) {
+        return HEADER_BYTES + (index & (CAPACITY - 1)) * SLOT_BYTES;
+    }
+}
@@ -0,0 +1,48 @@
+package jinzo.worldy.client.utils;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+public final class StaffJsonParser {
+
+    private StaffJsonParser() {}
+
+    /** Parses {@code {"role": ["uuid", ...], ...}}, accepting UUIDs with or without dashes. */
+    public static Map<String, List<UUID>> parse(Reader source) {
+        Map<String, List<UUID>> staffData = new LinkedHashMap<>();
+        try (JsonReader reader = new JsonReader(source)) {
+            reader.setLenient(true);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String role = reader.nextName();
+                List<UUID> uuids = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String uuidStr = reader.nextString().trim();
+                    try {
+                        String formattedUuid = uuidStr;
+                        if (formattedUuid.length() == 32) {
+                            formattedUuid = formattedUuid.substring(0, 8) + "-" +
+                                    formattedUuid.substring(8, 12) + "-" +
+                                    formattedUuid.substring(12, 16) + "-" +
+                                    formattedUuid.substring(16, 20) + "-" +
+                                    formattedUuid.substring(20, 32);
+                        }
+                        uuids.add(UUID.fromString(formattedUuid));
+                    } catch (Exception ex) {
+                        System.err.println("Invalid UUID in staff.json: " + uuidStr);
+                    }
+                }
+                reader.endArray();
+                staffData.put(role, uuids);
+            }
+            reader.endObject();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse JSON: " + e.getMessage(), e);
+        }
+        return staffData;
+    }
+}
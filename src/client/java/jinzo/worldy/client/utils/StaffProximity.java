@@ -0,0 +1,226 @@
+package jinzo.worldy.client.utils;
+
+import jinzo.worldy.client.Models.Staff;
+import jinzo.worldy.client.WorldyClient;
+import jinzo.worldy.client.WorldyConfig;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.*;
+
+/**
+ * Warns when staff members enter render range or come within {@code staff.alertRadius} blocks.
+ * <p>
+ * Only player entities whose UUID is on the staff roster are tracked: they are added and removed as the client
+ * loads and unloads entities, and kept in a 16-block spatial hash that is updated when one crosses a cell border.
+ * With no staff around the periodic check returns immediately. Client thread only, apart from {@link #setRoster}.
+ */
+public final class StaffProximity {
+
+    private static final int CELL_SHIFT = 4;
+    private static final int CHECK_INTERVAL_TICKS = 5;
+    // Leaving is reported a few blocks further out than entering so someone on the edge does not flap
+    private static final int HYSTERESIS = 4;
+    private static final long RENDER_ALERT_COOLDOWN_MS = 30_000;
+
+    private static final class Tracked {
+        final PlayerEntity entity;
+        String role;
+        long cell;
+        boolean near = false;
+        int seen = 0;
+
+        Tracked(PlayerEntity entity, String role) {
+            this.entity = entity;
+            this.role = role;
+        }
+    }
+
+    // Published by whichever thread rebuilt the staff list; swapped as a whole
+    private static volatile Map<UUID, String> staffRoles = Map.of();
+    private static Map<UUID, String> appliedRoles = staffRoles;
+
+    private static final Map<Integer, Tracked> tracked = new HashMap<>();
+    private static final Map<Long, List<Tracked>> grid = new HashMap<>();
+    // Tracked staff currently within the alert radius, so the leave check does not walk everyone
+    private static final List<Tracked> nearby = new ArrayList<>();
+    private static final Map<UUID, Long> lastRenderAlert = new HashMap<>();
+    private static int stamp = 0;
+
+    private StaffProximity() {}
+
+    public static void init() {
+        ClientEntityEvents.ENTITY_LOAD.register((entity, world) -> onLoad(entity, true));
+        ClientEntityEvents.ENTITY_UNLOAD.register((entity, world) -> onUnload(entity));
+        TickScheduler.register("staff-proximity", CHECK_INTERVAL_TICKS, StaffProximity::tick);
+    }
+
+    /**
+     * Updates the UUID to role lookup. Republishing the same roster, e.g. once names are resolved, changes nothing.
+     * Safe to call from any thread.
+     */
+    public static void setRoster(Map<String, List<Staff>> staffData) {
+        Map<UUID, String> roles = new HashMap<>();
+        for (Map.Entry<String, List<Staff>> entry : staffData.entrySet()) {
+            for (Staff member : entry.getValue()) roles.putIfAbsent(member.getUuid(), entry.getKey());
+        }
+        if (!roles.equals(staffRoles)) staffRoles = Map.copyOf(roles);
+    }
+
+    /** Forgets every tracked entity without alerting, e.g. on disconnect. */
+    public static void clear() {
+        tracked.clear();
+        grid.clear();
+        nearby.clear();
+    }
+
+    private static void onLoad(Entity entity, boolean alert) {
+        if (!(entity instanceof PlayerEntity player)) return;
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (entity == client.player || tracked.containsKey(entity.getId())) return;
+
+        String role = staffRoles.get(player.getUuid());
+        if (role == null) return;
+
+        Tracked t = new Tracked(player, role);
+        t.cell = cellOf(player);
+        tracked.put(player.getId(), t);
+        grid.computeIfAbsent(t.cell, k -> new ArrayList<>()).add(t);
+
+        if (alert) renderAlert(client, t, "§eis in render range");
+    }
+
+    private static void onUnload(Entity entity) {
+        Tracked t = tracked.remove(entity.getId());
+        if (t == null) return;
+        removeFromCell(t, t.cell);
+        if (t.near) nearby.remove(t);
+
+        // Only worth mentioning for someone who was close; everything else unloads silently, e.g. on world change
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (t.near && client.player != null) alert(client, t, "§7left render range");
+    }
+
+    private static void tick(MinecraftClient client) {
+        if (staffRoles != appliedRoles) applyRoster(client);
+        if (tracked.isEmpty() || client.player == null) return;
+
+        for (Tracked t : tracked.values()) {
+            long cell = cellOf(t.entity);
+            if (cell == t.cell) continue;
+            removeFromCell(t, t.cell);
+            t.cell = cell;
+            grid.computeIfAbsent(cell, k -> new ArrayList<>()).add(t);
+        }
+
+        WorldyConfig.StaffSettings cfg = WorldyClient.getConfig().staff;
+        if (!cfg.proximityAlerts || !WorldyClient.isTargetServer()) return;
+
+        int radius = cfg.alertRadius;
+        double enterSq = (double) radius * radius;
+        double leaveSq = (double) (radius + HYSTERESIS) * (radius + HYSTERESIS);
+        int current = ++stamp;
+
+        for (Tracked t : within(client.player.getX(), client.player.getZ(), radius + HYSTERESIS)) {
+            t.seen = current;
+            double distSq = t.entity.squaredDistanceTo(client.player);
+            if (!t.near && distSq <= enterSq) {
+                t.near = true;
+                nearby.add(t);
+                alert(client, t, String.format("§cis within %dm", (int) Math.sqrt(distSq)));
+            } else if (t.near && distSq > leaveSq) {
+                t.near = false;
+            }
+        }
+        for (Iterator<Tracked> it = nearby.iterator(); it.hasNext(); ) {
+            Tracked t = it.next();
+            if (t.near && t.seen == current) continue;
+            t.near = false;
+            it.remove();
+            alert(client, t, "§7moved away");
+        }
+    }
+
+    /** Tracked staff in the cells overlapping the square around (x, z); walks whichever side is smaller. */
+    private static List<Tracked> within(double x, double z, int range) {
+        int minX = ((int) Math.floor(x) - range) >> CELL_SHIFT;
+        int maxX = ((int) Math.floor(x) + range) >> CELL_SHIFT;
+        int minZ = ((int) Math.floor(z) - range) >> CELL_SHIFT;
+        int maxZ = ((int) Math.floor(z) + range) >> CELL_SHIFT;
+
+        List<Tracked> result = new ArrayList<>();
+        long cells = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        if (tracked.size() <= cells) {
+            for (Tracked t : tracked.values()) {
+                int cx = (int) (t.cell >> 32);
+                int cz = (int) t.cell;
+                if (cx >= minX && cx <= maxX && cz >= minZ && cz <= maxZ) result.add(t);
+            }
+            return result;
+        }
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                List<Tracked> bucket = grid.get(key(cx, cz));
+                if (bucket != null) result.addAll(bucket);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Re-evaluates loaded players after the staff list changed. Staff already tracked keep their state, players no
+     * longer on the list are dropped silently, and new matches are announced like fresh loads.
+     */
+    private static void applyRoster(MinecraftClient client) {
+        Map<UUID, String> roles = staffRoles;
+        appliedRoles = roles;
+        for (Iterator<Tracked> it = tracked.values().iterator(); it.hasNext(); ) {
+            Tracked t = it.next();
+            String role = roles.get(t.entity.getUuid());
+            if (role != null) {
+                t.role = role;
+                continue;
+            }
+            it.remove();
+            removeFromCell(t, t.cell);
+            if (t.near) nearby.remove(t);
+        }
+        if (client.world == null) return;
+        for (PlayerEntity player : client.world.getPlayers()) onLoad(player, true);
+    }
+
+    private static void removeFromCell(Tracked t, long cell) {
+        List<Tracked> bucket = grid.get(cell);
+        if (bucket == null) return;
+        bucket.remove(t);
+        if (bucket.isEmpty()) grid.remove(cell);
+    }
+
+    private static void renderAlert(MinecraftClient client, Tracked t, String what) {
+        long now = System.currentTimeMillis();
+        Long last = lastRenderAlert.get(t.entity.getUuid());
+        if (last != null && now - last < RENDER_ALERT_COOLDOWN_MS) return;
+        lastRenderAlert.put(t.entity.getUuid(), now);
+        alert(client, t, what);
+    }
+
+    private static void alert(MinecraftClient client, Tracked t, String what) {
+        if (client.player == null || !WorldyClient.isTargetServer()) return;
+        if (!WorldyClient.getConfig().staff.proximityAlerts) return;
+
+        String role = t.role.substring(0, 1).toUpperCase() + t.role.substring(1);
+        client.player.sendMessage(Text.literal("§e[Staff] §b" + t.entity.getGameProfile().getName()
+                + " §7(" + role + ") " + what), false);
+    }
+
+    private static long cellOf(Entity entity) {
+        return key(entity.getBlockX() >> CELL_SHIFT, entity.getBlockZ() >> CELL_SHIFT);
+    }
+
+    private static long key(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
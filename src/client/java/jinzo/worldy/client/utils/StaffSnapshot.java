@@ -0,0 +1,109 @@
+package jinzo.worldy.client.utils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.*;
+
+/**
+ * Last good staff roster together with the validators needed to revalidate it ({@code ETag} / {@code Last-Modified}).
+ * Stored as {@code config/worldy/staff.bin} next to the raw {@code staff.json} it was parsed from.
+ */
+public final class StaffSnapshot {
+
+    public static final String DOCUMENT_FILE = "staff.json";
+    private static final String FILE_NAME = "staff.bin";
+    private static final int MAGIC = 0x57535331; // "WSS1"
+
+    private final Map<String, List<UUID>> roster;
+    private final String etag;
+    private final String lastModified;
+    private final long fetchedAt;
+
+    public StaffSnapshot(Map<String, List<UUID>> roster, String etag, String lastModified, long fetchedAt) {
+        this.roster = roster;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public Map<String, List<UUID>> getRoster() {
+        return roster;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public StaffSnapshot withFetchedAt(long fetchedAt) {
+        return new StaffSnapshot(roster, etag, lastModified, fetchedAt);
+    }
+
+    /** Returns the stored snapshot, or null if there is none or it cannot be read. */
+    public static StaffSnapshot load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(StorageHelper.resolve(FILE_NAME))))) {
+            if (in.readInt() != MAGIC) return null;
+            String etag = readNullable(in);
+            String lastModified = readNullable(in);
+            long fetchedAt = in.readLong();
+
+            Map<String, List<UUID>> roster = new LinkedHashMap<>();
+            int roles = in.readInt();
+            for (int i = 0; i < roles; i++) {
+                String role = in.readUTF();
+                int count = in.readInt();
+                List<UUID> uuids = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) uuids.add(new UUID(in.readLong(), in.readLong()));
+                roster.put(role, uuids);
+            }
+            return new StaffSnapshot(roster, etag, lastModified, fetchedAt);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Failed to load staff snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void save() {
+        try {
+            StorageHelper.writeAtomically(StorageHelper.resolve(FILE_NAME), raw -> {
+                DataOutputStream out = new DataOutputStream(raw);
+                out.writeInt(MAGIC);
+                writeNullable(out, etag);
+                writeNullable(out, lastModified);
+                out.writeLong(fetchedAt);
+                out.writeInt(roster.size());
+                for (var entry : roster.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (UUID id : entry.getValue()) {
+                        out.writeLong(id.getMostSignificantBits());
+                        out.writeLong(id.getLeastSignificantBits());
+                    }
+                }
+                out.flush();
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to save staff snapshot: " + e.getMessage());
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+}
@@ -1,38 +1,57 @@
 package jinzo.worldy.client.utils;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.stream.JsonReader;
 import jinzo.worldy.client.Models.Staff;
+import jinzo.worldy.client.WorldyClient;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.text.Text;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.StringReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.*;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class StafflistHelper {
 
     private static final String STAFF_JSON_URL = "https://raw.githubusercontent.com/pernio/Worldy/refs/heads/main/data/staff.json";
+    private static final long FRESH_MS = TimeUnit.MINUTES.toMillis(5);
+    // How long other local instances wait on the one fetching before they try themselves
+    private static final long FETCH_LEASE_MS = TimeUnit.SECONDS.toMillis(15);
 
-    private static final Map<UUID, String> uuidToNameCache = new ConcurrentHashMap<>();
     private static final Map<String, UUID> playerUuidMap = new ConcurrentHashMap<>();
     // Preserve insertion order and provide basic thread-safety for single operations + synchronized iteration
     private static final Map<String, List<Staff>> cachedStaffData =
             Collections.synchronizedMap(new LinkedHashMap<>());
 
+    // Resolved staff names, kept in step with cachedStaffData for /stafflist find
+    private static final NameIndex staffIndex = new NameIndex();
+
     private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
         Thread t = new Thread(r, "worldy-staffloader");
         t.setDaemon(true);
         return t;
     });
 
-    private static volatile boolean isLoading = false;
+    // Name resolution runs separately so slow lookups never hold up the next staff-list refresh
+    private static final ExecutorService resolverExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "worldy-name-resolver");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Every load belongs to a generation; a disconnect or a newer load bumps it, and only work from the
+    // current generation may publish
+    private static final AtomicLong generation = new AtomicLong();
+    private static final Object jobLock = new Object();
+    private static Future<?> loadJob = null;
+    private static Future<?> resolveJob = null;
+    // Generation of the warm-start load, so a join can take it over instead of restarting it
+    private static long preloadGeneration = -1;
+
+    private static volatile StaffSnapshot currentSnapshot = null;
     private static volatile Instant lastFetched = Instant.EPOCH;
 
     private StafflistHelper() {}
@@ -47,170 +66,290 @@ public final class StafflistHelper {
         return Collections.unmodifiableMap(snapshot);
     }
 
+    /**
+     * Starts a load unless the roster is fresh. A warm-start load still running is kept, since it does the same work;
+     * any other running load is superseded.
+     */
     public static void loadStaffListOnJoin(MinecraftClient client) {
-        if (isLoading) return;
-        if (lastFetched.plusSeconds(60 * 5).isAfter(Instant.now()) && !cachedStaffData.isEmpty()) return;
-
-        isLoading = true;
-        executor.submit(() -> {
-            HttpURLConnection conn = null;
-            try {
-                URL url = new URL(STAFF_JSON_URL);
-                conn = (HttpURLConnection) url.openConnection();
-                conn.setConnectTimeout(5000);
-                conn.setReadTimeout(5000);
-                conn.setRequestMethod("GET");
-
-                try (InputStream inputStream = conn.getInputStream();
-                     Scanner scanner = new Scanner(inputStream).useDelimiter("\\A")) {
-                    String jsonContent = scanner.hasNext() ? scanner.next() : "";
-                    Map<String, List<UUID>> staffData = parseStaffJson(jsonContent);
-
-                    Map<String, List<Staff>> temp = new LinkedHashMap<>();
-                    for (Map.Entry<String, List<UUID>> entry : staffData.entrySet()) {
-                        String role = entry.getKey();
-                        List<UUID> uuids = entry.getValue();
-                        List<Staff> members = new ArrayList<>();
-                        for (UUID id : uuids) {
-                            String maybeName = uuidToNameCache.get(id);
-                            Staff s = (maybeName != null)
-                                    ? new Staff(maybeName, id, false)
-                                    : new Staff("Unknown (" + id.toString().substring(0, 8) + "...)",
-                                    id, true);
-                            members.add(s);
-                            if (!s.isUnknown()) playerUuidMap.put(s.getDisplayName(), id);
-                        }
-                        temp.put(role, Collections.unmodifiableList(members));
-                    }
-
-                    synchronized (cachedStaffData) {
-                        cachedStaffData.clear();
-                        cachedStaffData.putAll(temp);
-                    }
-
-                    resolveUnknownNamesAsync(client, staffData);
-
-                    lastFetched = Instant.now();
+        synchronized (jobLock) {
+            if (loadJob != null && !loadJob.isDone() && generation.get() == preloadGeneration) return;
+            if (lastFetched.plusMillis(FRESH_MS).isAfter(Instant.now()) && !cachedStaffData.isEmpty()) return;
+
+            long gen = startGeneration();
+            loadJob = executor.submit(() -> load(gen));
+        }
+    }
+
+    /**
+     * Warm start: publishes the roster saved by an earlier session and revalidates it in the background. Does
+     * nothing for players who never loaded the staff list, so they do not contact GitHub from the title screen.
+     */
+    public static void preload() {
+        synchronized (jobLock) {
+            if (loadJob != null && !loadJob.isDone()) return;
+            long gen = startGeneration();
+            preloadGeneration = gen;
+            loadJob = executor.submit(() -> {
+                if (currentSnapshot == null) {
+                    // Keep what was read so load() does not parse staff.bin a second time
+                    StaffSnapshot saved = StaffSnapshot.load();
+                    if (saved == null) return;
+                    currentSnapshot = saved;
                 }
-            } catch (Exception ignored) {
-            } finally {
-                if (conn != null) conn.disconnect();
-                isLoading = false;
+                load(gen);
+            });
+        }
+    }
+
+    /**
+     * Aborts the running load and name resolution, including their HTTP requests, and discards anything they
+     * would still publish. Called when the connection goes away.
+     */
+    public static void cancelPending() {
+        synchronized (jobLock) {
+            startGeneration();
+        }
+    }
+
+    // Caller holds jobLock
+    private static long startGeneration() {
+        long gen = generation.incrementAndGet();
+        if (loadJob != null) loadJob.cancel(true);
+        if (resolveJob != null) resolveJob.cancel(true);
+        loadJob = null;
+        resolveJob = null;
+        return gen;
+    }
+
+    private static boolean isCurrent(long gen) {
+        return generation.get() == gen && !Thread.currentThread().isInterrupted();
+    }
+
+    private static void load(long gen) {
+        SharedCache shared = SharedCache.get();
+        PerfMonitor.NetworkTimer timer = null;
+        boolean claimed = false;
+        try {
+            // Serve the last good roster straight away, then revalidate it against GitHub
+            StaffSnapshot snapshot = adoptShared(currentSnapshot, shared, gen);
+            if (snapshot != null && cachedStaffData.isEmpty()) {
+                publishRoster(snapshot.getRoster(), gen);
             }
-        });
-    }
-
-    private static Map<String, List<UUID>> parseStaffJson(String json) {
-        Map<String, List<UUID>> staffData = new LinkedHashMap<>();
-        try (JsonReader reader = new JsonReader(new StringReader(json))) {
-            reader.setLenient(true);
-            reader.beginObject();
-            while (reader.hasNext()) {
-                String role = reader.nextName();
-                List<UUID> uuids = new ArrayList<>();
-                reader.beginArray();
-                while (reader.hasNext()) {
-                    String uuidStr = reader.nextString().trim();
-                    try {
-                        String formattedUuid = uuidStr;
-                        if (formattedUuid.length() == 32) {
-                            formattedUuid = formattedUuid.substring(0, 8) + "-" +
-                                    formattedUuid.substring(8, 12) + "-" +
-                                    formattedUuid.substring(12, 16) + "-" +
-                                    formattedUuid.substring(16, 20) + "-" +
-                                    formattedUuid.substring(20, 32);
-                        }
-                        uuids.add(UUID.fromString(formattedUuid));
-                    } catch (Exception ex) {
-                        System.err.println("Invalid UUID in staff.json: " + uuidStr);
-                    }
+            if (!isCurrent(gen)) return;
+
+            // Another local instance is fetching right now; wait for its result instead of asking GitHub again
+            if (shared != null && !(claimed = shared.tryClaimStaffFetch(FETCH_LEASE_MS))) {
+                long seen = shared.getStaffValidatedAt();
+                long deadline = System.currentTimeMillis() + FETCH_LEASE_MS;
+                while (shared.getStaffValidatedAt() == seen && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(250);
                 }
-                reader.endArray();
-                staffData.put(role, uuids);
+                snapshot = adoptShared(snapshot, shared, gen);
             }
-            reader.endObject();
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to parse JSON: " + e.getMessage(), e);
-        }
-        return staffData;
-    }
-
-    private static void resolveUnknownNamesAsync(MinecraftClient client, Map<String, List<UUID>> staffData) {
-        executor.submit(() -> {
-            for (Map.Entry<String, List<UUID>> entry : staffData.entrySet()) {
-                for (UUID uuid : entry.getValue()) {
-                    if (uuidToNameCache.containsKey(uuid)) continue;
-
-                    String maybe = null;
-                    if (client.getNetworkHandler() != null) {
-                        var found = client.getNetworkHandler().getPlayerList().stream()
-                                .filter(pl -> pl.getProfile().getId().equals(uuid))
-                                .findFirst();
-                        if (found.isPresent()) {
-                            maybe = found.get().getProfile().getName();
-                        }
-                    }
-
-                    if (maybe == null) {
-                        maybe = fetchUsernameFromMojang(uuid);
-                    }
-
-                    if (maybe != null) {
-                        uuidToNameCache.put(uuid, maybe);
-                        playerUuidMap.put(maybe, uuid);
-                    }
-                }
+
+            if (snapshot != null && System.currentTimeMillis() - snapshot.getFetchedAt() < FRESH_MS) {
+                if (snapshot.getFetchedAt() > lastFetched.toEpochMilli()) lastFetched = Instant.ofEpochMilli(snapshot.getFetchedAt());
+                return;
             }
+            // Another instance still holds the lease, or took it over while we waited: serve what we adopted
+            // rather than fetching in parallel. lastFetched stays old, so the next join tries again.
+            if (shared != null && !claimed && !(claimed = shared.tryClaimStaffFetch(FETCH_LEASE_MS))) return;
 
-            Map<String, List<Staff>> resolved = new LinkedHashMap<>();
-            for (var entry : staffData.entrySet()) {
-                List<Staff> list = new ArrayList<>();
-                for (UUID id : entry.getValue()) {
-                    String name = uuidToNameCache.get(id);
-                    if (name != null) {
-                        list.add(new Staff(name, id, false));
-                    } else {
-                        list.add(new Staff("Unknown (" + id.toString().substring(0, 8) + "...)",
-                                id, true));
-                    }
-                }
-                resolved.put(entry.getKey(), Collections.unmodifiableList(list));
+            timer = PerfMonitor.startNetwork("staff.json");
+            boolean success = revalidate(snapshot, gen);
+            timer.finish(success);
+            timer = null;
+            if (success && shared != null) shared.setStaffValidatedAt(currentSnapshot.getFetchedAt());
+        } catch (HttpHelper.UnavailableException | InterruptedException ignored) {
+            // Host known to be down, or the load was cancelled; the cached roster stays in place
+        } catch (Exception e) {
+            System.err.println("Failed to load staff list: " + e.getMessage());
+        } finally {
+            if (timer != null) timer.finish(false);
+            if (claimed) shared.releaseStaffFetch();
+        }
+    }
+
+    /**
+     * Returns the newest snapshot known on this machine: ours, or the one on disk if another instance validated the
+     * staff document more recently. A changed roster from another instance is published right away.
+     */
+    private static StaffSnapshot adoptShared(StaffSnapshot current, SharedCache shared, long gen) {
+        long validatedAt = shared != null ? shared.getStaffValidatedAt() : 0;
+        if (current != null && validatedAt <= current.getFetchedAt()) return current;
+
+        StaffSnapshot disk = StaffSnapshot.load();
+        if (disk == null) return current;
+        disk = disk.withFetchedAt(Math.max(disk.getFetchedAt(), validatedAt));
+        currentSnapshot = disk;
+        if (current != null && !disk.getRoster().equals(current.getRoster())) {
+            publishRoster(disk.getRoster(), gen);
+        }
+        return disk;
+    }
+
+    private static boolean revalidate(StaffSnapshot snapshot, long gen) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpHelper.get(STAFF_JSON_URL);
+        if (snapshot != null && snapshot.getEtag() != null) {
+            request.header("If-None-Match", snapshot.getEtag());
+        }
+        if (snapshot != null && snapshot.getLastModified() != null) {
+            request.header("If-Modified-Since", snapshot.getLastModified());
+        }
+
+        HttpResponse<InputStream> response = HttpHelper.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 304 && snapshot != null) {
+                currentSnapshot = snapshot.withFetchedAt(System.currentTimeMillis());
+                lastFetched = Instant.now();
+                return true;
             }
-            synchronized (cachedStaffData) {
-                cachedStaffData.clear();
-                cachedStaffData.putAll(resolved);
+            if (response.statusCode() != 200) {
+                System.err.println("Staff list request returned: " + response.statusCode());
+                return false;
             }
-        });
+
+            // Parse straight off the wire while copying the bytes to disk; the copy only replaces
+            // the previous document if parsing succeeded.
+            Map<String, List<UUID>> staffData = new LinkedHashMap<>();
+            StorageHelper.writeAtomically(StorageHelper.resolve(StaffSnapshot.DOCUMENT_FILE), out -> {
+                TeeInputStream tee = new TeeInputStream(body, out);
+                staffData.putAll(StaffJsonParser.parse(new InputStreamReader(tee, StandardCharsets.UTF_8)));
+            });
+
+            StaffSnapshot fresh = new StaffSnapshot(staffData,
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null),
+                    System.currentTimeMillis());
+            fresh.save();
+            currentSnapshot = fresh;
+
+            if (publishRoster(staffData, gen)) lastFetched = Instant.now();
+            return true;
+        }
+    }
+
+    private static boolean publishRoster(Map<String, List<UUID>> staffData, long gen) {
+        if (!publish(buildStaffData(staffData), gen)) return false;
+        resolveUnknownNamesAsync(staffData, gen);
+        return true;
+    }
+
+    private static boolean publish(Map<String, List<Staff>> staff, long gen) {
+        synchronized (cachedStaffData) {
+            if (!isCurrent(gen)) return false;
+            cachedStaffData.clear();
+            cachedStaffData.putAll(staff);
+            StaffProximity.setRoster(staff);
+            updateIndex(staff);
+            return true;
+        }
+    }
+
+    private static void updateIndex(Map<String, List<Staff>> staff) {
+        Set<UUID> present = new HashSet<>();
+        for (List<Staff> members : staff.values()) {
+            for (Staff member : members) {
+                if (member.isUnknown()) continue;
+                staffIndex.put(member.getUuid(), member.getDisplayName());
+                present.add(member.getUuid());
+            }
+        }
+        staffIndex.retainAll(present);
+    }
+
+    /** Staff members with a resolved name matching {@code query}, best match first. */
+    public static List<NameIndex.Match> searchStaff(String query, int limit) {
+        return staffIndex.search(query, limit);
+    }
+
+    private static Map<String, List<Staff>> buildStaffData(Map<String, List<UUID>> staffData) {
+        Map<String, List<Staff>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, List<UUID>> entry : staffData.entrySet()) {
+            List<Staff> members = new ArrayList<>();
+            for (UUID id : entry.getValue()) {
+                String maybeName = NameCache.getName(id);
+                Staff s = (maybeName != null)
+                        ? new Staff(maybeName, id, false)
+                        : new Staff("Unknown (" + id.toString().substring(0, 8) + "...)",
+                        id, true);
+                members.add(s);
+                if (!s.isUnknown()) playerUuidMap.put(s.getDisplayName(), id);
+            }
+            result.put(entry.getKey(), Collections.unmodifiableList(members));
+        }
+        return result;
     }
 
-    private static String fetchUsernameFromMojang(UUID uuid) {
-        HttpURLConnection connection = null;
+    private static void resolveUnknownNamesAsync(Map<String, List<UUID>> staffData, long gen) {
+        synchronized (jobLock) {
+            if (generation.get() != gen) return;
+            if (resolveJob != null) resolveJob.cancel(true);
+            resolveJob = resolverExecutor.submit(() -> resolveUnknownNames(staffData, gen));
+        }
+    }
+
+    private static void resolveUnknownNames(Map<String, List<UUID>> staffData, long gen) {
+        // Online staff are named by the tab list; read it through the published snapshot, never the live list
+        PlayerRoster.Snapshot roster = PlayerRoster.snapshot();
+        List<UUID> pending = new ArrayList<>();
+        for (Map.Entry<String, List<UUID>> entry : staffData.entrySet()) {
+            for (UUID uuid : entry.getValue()) {
+                if (NameCache.getName(uuid) != null || NameCache.isNegative(uuid)) continue;
+
+                String maybe = roster.getName(uuid);
+                if (maybe != null) {
+                    NameCache.put(uuid, maybe);
+                    playerUuidMap.put(maybe, uuid);
+                } else {
+                    pending.add(uuid);
+                }
+            }
+        }
+
+        if (!isCurrent(gen)) return;
         try {
-            URL url = new URL("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid.toString().replace("-", ""));
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-
-            int responseCode = connection.getResponseCode();
-            if (responseCode == 200) {
-                try (InputStream inputStream = connection.getInputStream();
-                     Scanner scanner = new Scanner(inputStream).useDelimiter("\\A")) {
-                    String jsonResponse = scanner.hasNext() ? scanner.next() : "";
-                    JsonObject jsonObject = JsonParser.parseString(jsonResponse).getAsJsonObject();
-                    if (jsonObject.has("name")) {
-                        return jsonObject.get("name").getAsString();
-                    }
+            NameResolver.Result fetched = NameResolver.mojang(WorldyClient.getConfig().general.nameLookupConcurrency)
+                    .resolveAll(pending);
+            // Names that did arrive are kept even when cancelled, but a cancelled run proves nothing about misses
+            boolean cancelled = !isCurrent(gen);
+            for (UUID uuid : pending) {
+                String name = fetched.names().get(uuid);
+                if (name != null) {
+                    NameCache.put(uuid, name);
+                    playerUuidMap.put(name, uuid);
+                } else if (!cancelled && fetched.notFound().contains(uuid)) {
+                    NameCache.putNegative(uuid);
                 }
-            } else {
-                System.out.println("Mojang API returned: " + responseCode + " for UUID: " + uuid);
             }
-        } catch (Exception e) {
-            System.err.println("Error fetching from Mojang API for UUID " + uuid + ": " + e.getMessage());
-        } finally {
-            if (connection != null) connection.disconnect();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
         }
-        return null;
+
+        publish(buildStaffData(staffData), gen);
     }
 
+    private static final class TeeInputStream extends FilterInputStream {
+        private final OutputStream copy;
+
+        TeeInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) copy.write(b);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) copy.write(buf, off, n);
+            return n;
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package jinzo.worldy.client.utils;
+
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public final class StorageHelper {
+
+    public interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private StorageHelper() {}
+
+    public static Path getDataDir() {
+        return FabricLoader.getInstance().getConfigDir().resolve("worldy");
+    }
+
+    public static Path resolve(String fileName) {
+        return getDataDir().resolve(fileName);
+    }
+
+    /**
+     * Writes to a sibling temp file first and renames it over {@code target}, so readers never see a torn file.
+     * The temp name is unique, so several game instances sharing the directory do not write into each other's copy.
+     */
+    public static void writeAtomically(Path target, StreamWriter writer) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                writer.write(out);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
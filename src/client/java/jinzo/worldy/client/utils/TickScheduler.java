@@ -0,0 +1,75 @@
+package jinzo.worldy.client.utils;
+
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.minecraft.client.MinecraftClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Single owner of all periodic Worldy work on the client thread. Each task runs every {@code intervalTicks}
+ * ticks; once a tick has used up {@link #TICK_BUDGET_NANOS}, remaining due tasks are deferred to the next tick.
+ * The starting task rotates every tick so a slow task cannot starve the ones registered after it.
+ */
+public final class TickScheduler {
+
+    private static final long TICK_BUDGET_NANOS = 2_000_000L;
+
+    private static final class Task {
+        final String name;
+        final int intervalTicks;
+        final Consumer<MinecraftClient> action;
+        long nextTick;
+
+        Task(String name, int intervalTicks, Consumer<MinecraftClient> action) {
+            this.name = name;
+            this.intervalTicks = Math.max(1, intervalTicks);
+            this.action = action;
+        }
+    }
+
+    // Client thread only
+    private static final List<Task> tasks = new ArrayList<>();
+    private static long tick = 0;
+    private static int cursor = 0;
+    private static boolean initialized = false;
+
+    private TickScheduler() {}
+
+    public static void init() {
+        if (initialized) return;
+        initialized = true;
+        ClientTickEvents.END_CLIENT_TICK.register(TickScheduler::run);
+    }
+
+    public static void register(String name, int intervalTicks, Consumer<MinecraftClient> action) {
+        Task task = new Task(name, intervalTicks, action);
+        task.nextTick = tick + 1;
+        tasks.add(task);
+    }
+
+    private static void run(MinecraftClient client) {
+        tick++;
+        int count = tasks.size();
+        if (count == 0) return;
+
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+        boolean ranAny = false;
+        for (int i = 0; i < count; i++) {
+            Task task = tasks.get((cursor + i) % count);
+            if (task.nextTick > tick) continue;
+            // Always run at least one due task so deferred work keeps making progress
+            if (ranAny && System.nanoTime() > deadline) continue;
+
+            try {
+                PerfMonitor.time(task.name, () -> task.action.accept(client));
+            } catch (Throwable t) {
+                System.err.println("Worldy task '" + task.name + "' failed: " + t.getMessage());
+            }
+            task.nextTick = tick + task.intervalTicks;
+            ranAny = true;
+        }
+        cursor = (cursor + 1) % count;
+    }
+}
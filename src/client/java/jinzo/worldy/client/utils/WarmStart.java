@@ -0,0 +1,41 @@
+package jinzo.worldy.client.utils;
+
+/**
+ * Loads persisted Worldy state on a low-priority background thread right after client init, so the title screen
+ * is not held up and the first {@code /stafflist} or waypoint command after joining finds everything in memory.
+ * Every step is optional; a failing step is logged and the rest still run.
+ */
+public final class WarmStart {
+
+    private static boolean started = false;
+
+    private WarmStart() {}
+
+    public static synchronized void start() {
+        if (started) return;
+        started = true;
+
+        Thread thread = new Thread(WarmStart::run, "worldy-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private static void run() {
+        step("warmup.names", NameCache::preload);
+        step("warmup.staff", StafflistHelper::preload);
+        step("warmup.waypoints", WaypointStore::preload);
+        step("warmup.deaths", () -> {
+            DeathJournal.preload();
+            WaypointManager.getLastDeath();
+        });
+    }
+
+    private static void step(String name, Runnable task) {
+        try {
+            PerfMonitor.time(name, task);
+        } catch (RuntimeException e) {
+            System.err.println("Worldy warm start step " + name + " failed: " + e.getMessage());
+        }
+    }
+}
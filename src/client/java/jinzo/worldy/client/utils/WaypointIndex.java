@@ -0,0 +1,158 @@
+package jinzo.worldy.client.utils;
+
+import jinzo.worldy.client.Models.Waypoint;
+
+import java.util.*;
+
+/**
+ * Waypoints of one server and dimension, bucketed into a hash of 64x64 block grid cells so nearest-k and radius
+ * queries only visit the cells around the query point. Names are kept in a sorted map so prefix lookups for tab
+ * completion are a range view rather than a scan. Not thread-safe; {@link WaypointStore} guards access.
+ */
+public final class WaypointIndex {
+
+    private static final int CELL_SHIFT = 6;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    private final Map<Long, List<Waypoint>> cells = new HashMap<>();
+    private final NavigableMap<String, Waypoint> byName = new TreeMap<>();
+
+    public int size() {
+        return byName.size();
+    }
+
+    public Collection<Waypoint> all() {
+        return Collections.unmodifiableCollection(byName.values());
+    }
+
+    public Waypoint get(String name) {
+        return byName.get(key(name));
+    }
+
+    /** Adds the waypoint, replacing any existing waypoint with the same (case-insensitive) name. */
+    public void add(Waypoint waypoint) {
+        Waypoint previous = byName.put(key(waypoint.getName()), waypoint);
+        if (previous != null) removeFromCell(previous);
+        cells.computeIfAbsent(cellKey(cell(waypoint.getX()), cell(waypoint.getZ())), k -> new ArrayList<>(2))
+                .add(waypoint);
+    }
+
+    public Waypoint remove(String name) {
+        Waypoint removed = byName.remove(key(name));
+        if (removed != null) removeFromCell(removed);
+        return removed;
+    }
+
+    /** Up to {@code k} waypoints ordered by distance, nearest first. */
+    public List<Waypoint> nearest(double x, double y, double z, int k) {
+        if (k <= 0 || byName.isEmpty()) return List.of();
+
+        // Max-heap on distance holding the best k found so far
+        PriorityQueue<Candidate> best = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b.distSq, a.distSq));
+        int cx = cell(x), cz = cell(z);
+        int visited = 0;
+
+        for (int r = 0; ; r++) {
+            // Once the rings cover more cells than are occupied, a flat scan is cheaper than walking empty cells
+            if ((long) (2 * r + 1) * (2 * r + 1) > cells.size() * 2L) {
+                best.clear();
+                for (List<Waypoint> bucket : cells.values()) offerAll(best, bucket, x, y, z, k);
+                break;
+            }
+
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dz = -r; dz <= r; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != r) continue;
+                    List<Waypoint> bucket = cells.get(cellKey(cx + dx, cz + dz));
+                    if (bucket == null) continue;
+                    visited += bucket.size();
+                    offerAll(best, bucket, x, y, z, k);
+                }
+            }
+
+            // Anything in ring r+1 is at least r whole cells away horizontally
+            double bound = (double) r * CELL_SIZE;
+            if (best.size() == k && best.peek().distSq <= bound * bound) break;
+            if (visited == byName.size()) break;
+        }
+
+        List<Waypoint> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) result.add(best.poll().waypoint);
+        Collections.reverse(result);
+        return result;
+    }
+
+    /** Names starting with {@code prefix} (case-insensitive) in alphabetical order, at most {@code limit}. */
+    public List<String> namesWithPrefix(String prefix, int limit) {
+        String from = key(prefix);
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        for (Waypoint w : byName.tailMap(from, true).values()) {
+            if (result.size() >= limit || !key(w.getName()).startsWith(from)) break;
+            result.add(w.getName());
+        }
+        return result;
+    }
+
+    /** All waypoints within {@code radius} blocks, in no particular order. */
+    public List<Waypoint> withinRadius(double x, double y, double z, double radius) {
+        List<Waypoint> result = new ArrayList<>();
+        double radiusSq = radius * radius;
+        int minX = cell(x - radius), maxX = cell(x + radius);
+        int minZ = cell(z - radius), maxZ = cell(z + radius);
+
+        if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > cells.size()) {
+            for (List<Waypoint> bucket : cells.values()) collectWithin(result, bucket, x, y, z, radiusSq);
+            return result;
+        }
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                List<Waypoint> bucket = cells.get(cellKey(cx, cz));
+                if (bucket != null) collectWithin(result, bucket, x, y, z, radiusSq);
+            }
+        }
+        return result;
+    }
+
+    private void removeFromCell(Waypoint waypoint) {
+        long key = cellKey(cell(waypoint.getX()), cell(waypoint.getZ()));
+        List<Waypoint> bucket = cells.get(key);
+        if (bucket == null) return;
+        bucket.remove(waypoint);
+        if (bucket.isEmpty()) cells.remove(key);
+    }
+
+    private static void offerAll(PriorityQueue<Candidate> best, List<Waypoint> bucket,
+                                 double x, double y, double z, int k) {
+        for (Waypoint w : bucket) {
+            double d = w.squaredDistanceTo(x, y, z);
+            if (best.size() < k) {
+                best.add(new Candidate(w, d));
+            } else if (d < best.peek().distSq) {
+                best.poll();
+                best.add(new Candidate(w, d));
+            }
+        }
+    }
+
+    private static void collectWithin(List<Waypoint> out, List<Waypoint> bucket,
+                                      double x, double y, double z, double radiusSq) {
+        for (Waypoint w : bucket) {
+            if (w.squaredDistanceTo(x, y, z) <= radiusSq) out.add(w);
+        }
+    }
+
+    private static int cell(double coord) {
+        return ((int) Math.floor(coord)) >> CELL_SHIFT;
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private record Candidate(Waypoint waypoint, double distSq) {}
+}
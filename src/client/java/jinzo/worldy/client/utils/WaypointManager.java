@@ -1,31 +1,35 @@
 package jinzo.worldy.client.utils;
 
-import com.google.gson.Gson;
 import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.world.ClientWorld;
-import net.minecraft.particle.ParticleTypes;
+import net.minecraft.client.network.ServerInfo;
 import net.minecraft.util.math.Vec3d;
-import me.shedaniel.autoconfig.AutoConfig;
+import jinzo.worldy.client.WorldyClient;
 import jinzo.worldy.client.WorldyConfig;
+import jinzo.worldy.client.Models.DeathRecord;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.Locale;
 
 public class WaypointManager {
     private static volatile Vec3d target = null;
     private static volatile boolean active = false;
 
-    private static volatile int tickCounter = 0;
+    private static final String LAST_DEATH_FILE = "last_death.bin";
+    private static Vec3d lastDeath = Vec3d.ZERO;
+    private static boolean lastDeathLoaded = false;
 
     private WaypointManager() {}
 
     public static void setWaypoint(Vec3d t) {
         target = t;
         active = t != null;
-        tickCounter = 0;
     }
 
     public static void clearWaypoint() {
         target = null;
         active = false;
-        tickCounter = 0;
     }
 
     public static Vec3d getWaypoint() {
@@ -36,58 +40,75 @@ public class WaypointManager {
         return active && target != null;
     }
 
-    public static void spawnPathParticles(int maxBlocks) {
-        if (!isActive()) return;
-
-        MinecraftClient mc = MinecraftClient.getInstance();
-        if (mc.player == null || mc.world == null) return;
-
-        tickCounter++;
-        if (tickCounter % 4 != 0) return;
-
-        Vec3d start = mc.player.getPos().add(0, 0.3, 0);
-        Vec3d dir = target.subtract(start);
-        double distance = dir.length();
-        if (distance <= 0.001) return;
-
-        Vec3d unit = dir.normalize();
-        ClientWorld world = mc.world;
-
-        int steps = Math.min(maxBlocks, (int) Math.ceil(distance));
-        double spacing = 0.8;
-        for (int i = 1; i <= steps; i++) {
-            double px = start.x + unit.x * i * spacing;
-            double py = start.y + unit.y * i * spacing;
-            double pz = start.z + unit.z * i * spacing;
-
-            world.addParticle(ParticleTypes.CRIT, px, py, pz, 0.0, 0.01, 0.0);
+    /** Key that scopes saved waypoints to the current server, or to the world save in singleplayer. */
+    public static String getServerKey(MinecraftClient mc) {
+        if (mc.isIntegratedServerRunning() && mc.getServer() != null) {
+            return "singleplayer:" + mc.getServer().getSaveProperties().getLevelName();
         }
+        ServerInfo server = mc.getCurrentServerEntry();
+        if (server == null || server.address == null) return "unknown";
+        return server.address.toLowerCase(Locale.ROOT);
+    }
 
-        if (distance <= steps * spacing + 0.5) {
-            world.addParticle(ParticleTypes.SOUL_FIRE_FLAME,
-                    target.x, target.y + 0.1, target.z, 0.0, 0.02, 0.0);
-        }
+    public static String getDimensionKey(MinecraftClient mc) {
+        if (mc.world == null) return "unknown";
+        return mc.world.getRegistryKey().getValue().toString();
+    }
+
+    /** Remembers a death as the last death and appends it to the {@link DeathJournal}. */
+    public static void recordDeath(MinecraftClient mc, Vec3d deathPos, String cause) {
+        if (deathPos == null) return;
+        setLastDeath(deathPos);
+        DeathJournal.append(new DeathRecord(System.currentTimeMillis(), getServerKey(mc), getDimensionKey(mc),
+                deathPos.x, deathPos.y, deathPos.z, cause));
     }
 
     public static void setLastDeath(Vec3d deathPos) {
         if (deathPos == null) return;
-        saveLastDeathToConfig(deathPos);
+        synchronized (WaypointManager.class) {
+            lastDeath = deathPos;
+            lastDeathLoaded = true;
+        }
+        PersistenceQueue.markDirty(LAST_DEATH_FILE, WaypointManager::saveLastDeath);
     }
 
-    public static Vec3d getLastDeath() {
-        WorldyConfig cfg = AutoConfig.getConfigHolder(WorldyConfig.class).getConfig();
-        return new Vec3d(cfg.waypoint.lastDeathX, cfg.waypoint.lastDeathY, cfg.waypoint.lastDeathZ);
+    public static synchronized Vec3d getLastDeath() {
+        if (!lastDeathLoaded) {
+            lastDeathLoaded = true;
+            lastDeath = loadLastDeath();
+        }
+        return lastDeath;
     }
 
-    private static void saveLastDeathToConfig(Vec3d deathPos) {
+    private static Vec3d loadLastDeath() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(StorageHelper.resolve(LAST_DEATH_FILE))))) {
+            return new Vec3d(in.readDouble(), in.readDouble(), in.readDouble());
+        } catch (NoSuchFileException e) {
+            // Older versions kept the last death inside the config file
+            WorldyConfig cfg = WorldyClient.getConfig();
+            return new Vec3d(cfg.waypoint.lastDeathX, cfg.waypoint.lastDeathY, cfg.waypoint.lastDeathZ);
+        } catch (IOException e) {
+            System.err.println("Failed to load last death: " + e.getMessage());
+            return Vec3d.ZERO;
+        }
+    }
+
+    private static void saveLastDeath() {
+        Vec3d pos;
+        synchronized (WaypointManager.class) {
+            pos = lastDeath;
+        }
         try {
-            WorldyConfig cfg = AutoConfig.getConfigHolder(WorldyConfig.class).getConfig();
-            cfg.waypoint.lastDeathX = (int)deathPos.x;
-            cfg.waypoint.lastDeathY = (int)deathPos.y;
-            cfg.waypoint.lastDeathZ = (int)deathPos.z;
-            AutoConfig.getConfigHolder(WorldyConfig.class).save();
-        } catch (Throwable t) {
-            System.err.println("Failed to save last death to config: " + t.getMessage());
+            StorageHelper.writeAtomically(StorageHelper.resolve(LAST_DEATH_FILE), raw -> {
+                DataOutputStream out = new DataOutputStream(raw);
+                out.writeDouble(pos.x);
+                out.writeDouble(pos.y);
+                out.writeDouble(pos.z);
+                out.flush();
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to save last death: " + e.getMessage());
         }
     }
 }
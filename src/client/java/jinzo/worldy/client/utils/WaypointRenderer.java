@@ -0,0 +1,100 @@
+package jinzo.worldy.client.utils;
+
+import jinzo.worldy.client.WorldyClient;
+import jinzo.worldy.client.WorldyConfig;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Draws the waypoint guide as world-space lines every frame. The guide follows the route planned by
+ * {@link PathfindingManager}, or a straight line until one is available. The polyline is cached and only rebuilt
+ * when the player has moved past {@link #REBUILD_DISTANCE} or the target, route or path length changed.
+ */
+public final class WaypointRenderer {
+
+    private static final double REBUILD_DISTANCE = 0.5;
+    private static final double POINT_SPACING = 1.0;
+    private static final int TRAIL_COLOR = 0xFFFFD24A;
+    private static final int TARGET_COLOR = 0xFF4AE0FF;
+
+    // Render thread only
+    private static double[] points = new double[0];
+    private static Vec3d builtFrom = null;
+    private static Vec3d builtFor = null;
+    private static int builtLength = -1;
+    private static PathfindingManager.Route builtRoute = null;
+    private static int builtProgress = -1;
+
+    private WaypointRenderer() {}
+
+    public static void init() {
+        WorldRenderEvents.AFTER_TRANSLUCENT.register(context -> PerfMonitor.time("waypoint-render", () -> render(context)));
+    }
+
+    private static void render(WorldRenderContext context) {
+        WorldyConfig.WaypointSettings settings = WorldyClient.getConfig().waypoint;
+        if (!settings.enabled || !WaypointManager.isActive()) return;
+
+        MinecraftClient mc = MinecraftClient.getInstance();
+        VertexConsumerProvider consumers = context.consumers();
+        if (mc.player == null || consumers == null) return;
+
+        Vec3d target = WaypointManager.getWaypoint();
+        if (target == null) return;
+
+        Vec3d start = mc.player.getPos().add(0, 0.3, 0);
+        PathfindingManager.Route route = PathfindingManager.getRoute(target);
+        int progress = PathfindingManager.getProgress();
+        if (target != builtFor || settings.pathLength != builtLength || route != builtRoute || progress != builtProgress
+                || builtFrom == null || builtFrom.squaredDistanceTo(start) > REBUILD_DISTANCE * REBUILD_DISTANCE) {
+            points = route != null
+                    ? PathGeometry.alongRoute(start.x, start.y, start.z, route.getPoints(), progress, settings.pathLength)
+                    : PathGeometry.straightLine(start.x, start.y, start.z, target.x, target.y, target.z,
+                    settings.pathLength, POINT_SPACING);
+            builtFrom = start;
+            builtFor = target;
+            builtLength = settings.pathLength;
+            builtRoute = route;
+            builtProgress = progress;
+        }
+
+        Vec3d cam = context.camera().getPos();
+        MatrixStack.Entry entry = context.matrixStack().peek();
+        VertexConsumer lines = consumers.getBuffer(RenderLayer.getLines());
+
+        for (int i = 3; i < points.length; i += 3) {
+            line(lines, entry,
+                    points[i - 3] - cam.x, points[i - 2] - cam.y, points[i - 1] - cam.z,
+                    points[i] - cam.x, points[i + 1] - cam.y, points[i + 2] - cam.z,
+                    TRAIL_COLOR);
+        }
+
+        if (start.distanceTo(target) <= settings.pathLength + 0.5) {
+            double x = target.x - cam.x, y = target.y - cam.y, z = target.z - cam.z;
+            line(lines, entry, x, y, z, x, y + 2.0, z, TARGET_COLOR);
+        }
+
+        if (consumers instanceof VertexConsumerProvider.Immediate immediate) {
+            immediate.draw(RenderLayer.getLines());
+        }
+    }
+
+    private static void line(VertexConsumer lines, MatrixStack.Entry entry,
+                             double x1, double y1, double z1, double x2, double y2, double z2, int color) {
+        float nx = (float) (x2 - x1), ny = (float) (y2 - y1), nz = (float) (z2 - z1);
+        float len = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (len < 1.0E-4F) return;
+        nx /= len;
+        ny /= len;
+        nz /= len;
+
+        lines.vertex(entry, (float) x1, (float) y1, (float) z1).color(color).normal(entry, nx, ny, nz);
+        lines.vertex(entry, (float) x2, (float) y2, (float) z2).color(color).normal(entry, nx, ny, nz);
+    }
+}
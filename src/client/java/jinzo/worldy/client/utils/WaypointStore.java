@@ -0,0 +1,164 @@
+package jinzo.worldy.client.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import jinzo.worldy.client.Models.Waypoint;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.*;
+
+/**
+ * Saved waypoints for every server and dimension, persisted to {@code config/worldy/waypoints.json}.
+ * Each server/dimension pair gets its own {@link WaypointIndex}.
+ */
+public final class WaypointStore {
+
+    private static final String FILE_NAME = "waypoints.json";
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private static final Map<String, WaypointIndex> indexes = new HashMap<>();
+    private static boolean loaded = false;
+    private static boolean dirty = false;
+
+    private WaypointStore() {}
+
+    /** Reads the waypoint file ahead of the first lookup. */
+    public static synchronized void preload() {
+        ensureLoaded();
+    }
+
+    public static synchronized void add(Waypoint waypoint) {
+        ensureLoaded();
+        indexFor(waypoint.getServer(), waypoint.getDimension()).add(waypoint);
+        markDirty();
+    }
+
+    /**
+     * Bulk insert for imports: waypoints whose name is already taken in their scope are skipped. Does not schedule a
+     * save, so a long import does not rewrite the file after every batch; call {@link #markDirtyAfterBulk()} once
+     * the import is done.
+     */
+    public static synchronized int addAllAbsent(List<Waypoint> waypoints) {
+        ensureLoaded();
+        int added = 0;
+        for (Waypoint w : waypoints) {
+            WaypointIndex index = indexFor(w.getServer(), w.getDimension());
+            if (index.get(w.getName()) != null) continue;
+            index.add(w);
+            added++;
+        }
+        return added;
+    }
+
+    /** Schedules the save for waypoints added through {@link #addAllAbsent}. */
+    public static synchronized void markDirtyAfterBulk() {
+        markDirty();
+    }
+
+    /** Every waypoint saved for {@code server}, across all dimensions. */
+    public static synchronized List<Waypoint> allForServer(String server) {
+        ensureLoaded();
+        List<Waypoint> result = new ArrayList<>();
+        String prefix = server + "|";
+        for (Map.Entry<String, WaypointIndex> e : indexes.entrySet()) {
+            if (e.getKey().startsWith(prefix)) result.addAll(e.getValue().all());
+        }
+        return result;
+    }
+
+    public static synchronized Waypoint remove(String server, String dimension, String name) {
+        ensureLoaded();
+        WaypointIndex index = indexes.get(scope(server, dimension));
+        Waypoint removed = index != null ? index.remove(name) : null;
+        if (removed != null) markDirty();
+        return removed;
+    }
+
+    public static synchronized Waypoint get(String server, String dimension, String name) {
+        ensureLoaded();
+        WaypointIndex index = indexes.get(scope(server, dimension));
+        return index != null ? index.get(name) : null;
+    }
+
+    public static synchronized int count(String server, String dimension) {
+        ensureLoaded();
+        WaypointIndex index = indexes.get(scope(server, dimension));
+        return index != null ? index.size() : 0;
+    }
+
+    public static synchronized List<Waypoint> nearest(String server, String dimension,
+                                                      double x, double y, double z, int k) {
+        ensureLoaded();
+        WaypointIndex index = indexes.get(scope(server, dimension));
+        return index != null ? index.nearest(x, y, z, k) : List.of();
+    }
+
+    public static synchronized List<Waypoint> withinRadius(String server, String dimension,
+                                                           double x, double y, double z, double radius) {
+        ensureLoaded();
+        WaypointIndex index = indexes.get(scope(server, dimension));
+        return index != null ? index.withinRadius(x, y, z, radius) : List.of();
+    }
+
+    public static synchronized List<String> namesWithPrefix(String server, String dimension, String prefix, int limit) {
+        ensureLoaded();
+        WaypointIndex index = indexes.get(scope(server, dimension));
+        return index != null ? index.namesWithPrefix(prefix, limit) : List.of();
+    }
+
+    /** Writes the store to disk if it changed. Runs on the persistence thread via {@link PersistenceQueue}. */
+    public static void save() {
+        List<Waypoint> copy = new ArrayList<>();
+        synchronized (WaypointStore.class) {
+            if (!dirty) return;
+            for (WaypointIndex index : indexes.values()) copy.addAll(index.all());
+            dirty = false;
+        }
+
+        try {
+            StorageHelper.writeAtomically(StorageHelper.resolve(FILE_NAME), out -> {
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                GSON.toJson(copy, writer);
+                writer.flush();
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to save waypoints: " + e.getMessage());
+        }
+    }
+
+    private static void markDirty() {
+        dirty = true;
+        PersistenceQueue.markDirty(FILE_NAME, WaypointStore::save);
+    }
+
+    private static WaypointIndex indexFor(String server, String dimension) {
+        return indexes.computeIfAbsent(scope(server, dimension), k -> new WaypointIndex());
+    }
+
+    private static String scope(String server, String dimension) {
+        return server + "|" + dimension;
+    }
+
+    private static void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+
+        try (Reader reader = new InputStreamReader(new BufferedInputStream(
+                Files.newInputStream(StorageHelper.resolve(FILE_NAME))), StandardCharsets.UTF_8)) {
+            List<Waypoint> saved = GSON.fromJson(reader, new TypeToken<List<Waypoint>>() {}.getType());
+            if (saved == null) return;
+            for (Waypoint w : saved) {
+                if (w == null || w.getName() == null || w.getServer() == null || w.getDimension() == null) continue;
+                indexFor(w.getServer(), w.getDimension()).add(w);
+            }
+        } catch (NoSuchFileException ignored) {
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Failed to load waypoints: " + e.getMessage());
+        }
+    }
+}
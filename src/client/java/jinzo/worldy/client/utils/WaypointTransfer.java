@@ -0,0 +1,260 @@
+package jinzo.worldy.client.utils;
+
+import jinzo.worldy.client.Models.Waypoint;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Waypoint import and export in Xaero's Minimap and VoxelMap formats, plus single-waypoint share codes.
+ * <p>
+ * Files are read line by line on the {@code worldy-waypoint-io} thread and inserted into {@link WaypointStore} in
+ * batches of {@link #BATCH_SIZE}, so neither the file nor the parsed result is ever held in memory as a whole.
+ * Progress and results are reported back on the client thread.
+ */
+public final class WaypointTransfer {
+
+    public enum Format { XAERO, VOXELMAP }
+
+    public static final String SHARE_PREFIX = "wy1:";
+    private static final int BATCH_SIZE = 500;
+    private static final int PROGRESS_EVERY = 10_000;
+    private static final String EXPORT_DIR = "exports";
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "worldy-waypoint-io");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private WaypointTransfer() {}
+
+    /**
+     * Imports {@code file} into {@code server}. Waypoints without a dimension of their own, and Xaero files whose
+     * folder does not name one, go to {@code fallbackDimension}.
+     */
+    public static void importAsync(MinecraftClient client, Format format, Path file, String server, String fallbackDimension) {
+        executor.submit(() -> {
+            try {
+                runImport(client, format, file, server, fallbackDimension);
+            } catch (RuntimeException e) {
+                report(client, "§cImport failed: " + e);
+            }
+        });
+    }
+
+    /** Writes the waypoints of {@code server} to {@code config/worldy/exports}. Xaero files hold one dimension. */
+    public static void exportAsync(MinecraftClient client, Format format, String server, String dimension) {
+        executor.submit(() -> {
+            try {
+                runExport(client, format, server, dimension);
+            } catch (RuntimeException e) {
+                report(client, "§cExport failed: " + e);
+            }
+        });
+    }
+
+    private static void runImport(MinecraftClient client, Format format, Path file, String server, String fallbackDimension) {
+        String fileDimension = format == Format.XAERO ? xaeroDimensionOf(file, fallbackDimension) : fallbackDimension;
+        long now = System.currentTimeMillis();
+        List<Waypoint> batch = new ArrayList<>(BATCH_SIZE);
+        int parsed = 0;
+        int added = 0;
+        int skipped = 0;
+
+        // Batches only touch the in-memory indexes; the file is written once, when the import ends
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<Waypoint> records = format == Format.XAERO
+                        ? parseXaero(line, server, fileDimension, now)
+                        : parseVoxelMap(line, server, fallbackDimension, now);
+                if (records.isEmpty()) continue;
+
+                for (Waypoint w : records) {
+                    batch.add(w);
+                    if (++parsed % PROGRESS_EVERY == 0) report(client, "§7Imported " + parsed + " waypoints so far...");
+                }
+                if (batch.size() >= BATCH_SIZE) {
+                    int inserted = WaypointStore.addAllAbsent(batch);
+                    added += inserted;
+                    skipped += batch.size() - inserted;
+                    batch.clear();
+                }
+            }
+            int inserted = WaypointStore.addAllAbsent(batch);
+            added += inserted;
+            skipped += batch.size() - inserted;
+        } catch (IOException | UncheckedIOException e) {
+            report(client, "§cImport failed after " + parsed + " waypoints: " + e.getMessage());
+            return;
+        } finally {
+            if (added > 0) WaypointStore.markDirtyAfterBulk();
+        }
+
+        report(client, "§aImported " + added + " waypoints from " + file.getFileName()
+                + (skipped > 0 ? " §7(" + skipped + " skipped, name already in use)" : "") + ".");
+    }
+
+    private static void runExport(MinecraftClient client, Format format, String server, String dimension) {
+        List<Waypoint> waypoints = WaypointStore.allForServer(server);
+        String base = server.replaceAll("[^A-Za-z0-9._-]", "_");
+        Path target = format == Format.XAERO
+                ? StorageHelper.getDataDir().resolve(EXPORT_DIR).resolve(base + "_" + dimension.replaceAll("[^A-Za-z0-9._-]", "_") + ".txt")
+                : StorageHelper.getDataDir().resolve(EXPORT_DIR).resolve(base + ".points");
+
+        int written = 0;
+        try {
+            Files.createDirectories(target.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+                if (format == Format.XAERO) {
+                    writer.write("#\n#waypoint:name:initials:x:y:z:color:disabled:type:set:rotate_on_tp:tp_yaw:visibility_type:destination\n#\n");
+                }
+                for (Waypoint w : waypoints) {
+                    if (format == Format.XAERO && !w.getDimension().equals(dimension)) continue;
+                    writer.write(format == Format.XAERO ? formatXaero(w) : formatVoxelMap(w));
+                    writer.write('\n');
+                    written++;
+                }
+            }
+        } catch (IOException e) {
+            report(client, "§cExport failed: " + e.getMessage());
+            return;
+        }
+        report(client, "§aExported " + written + " waypoints to " + target);
+    }
+
+    // ---- Xaero's Minimap: waypoint:name:initials:x:y:z:color:disabled:type:set:... with ':' in names as "§§"
+
+    static List<Waypoint> parseXaero(String line, String server, String dimension, long now) {
+        if (!line.startsWith("waypoint:")) return List.of();
+        String[] parts = line.split(":", -1);
+        if (parts.length < 6) return List.of();
+        try {
+            String name = parts[1].replace("§§", ":");
+            double x = Integer.parseInt(parts[3]) + 0.5;
+            double y = parts[4].equals("~") ? 64.5 : Integer.parseInt(parts[4]) + 0.5;
+            double z = Integer.parseInt(parts[5]) + 0.5;
+            if (name.isBlank()) return List.of();
+            return List.of(new Waypoint(name, server, dimension, x, y, z, now));
+        } catch (NumberFormatException e) {
+            return List.of();
+        }
+    }
+
+    static String formatXaero(Waypoint w) {
+        String name = w.getName().replace(":", "§§");
+        String initials = name.isEmpty() ? "W" : name.substring(0, 1).toUpperCase(Locale.ROOT);
+        return "waypoint:" + name + ":" + initials + ":" + (int) Math.floor(w.getX()) + ":" + (int) Math.floor(w.getY())
+                + ":" + (int) Math.floor(w.getZ()) + ":0:false:0:gui.xaero_default:false:0:0:false";
+    }
+
+    /** Xaero keeps one file per dimension in folders such as {@code dim%0}, {@code dim%-1} or {@code dim%minecraft$the_end}. */
+    static String xaeroDimensionOf(Path file, String fallback) {
+        Path parent = file.getParent();
+        if (parent == null || parent.getFileName() == null) return fallback;
+        String folder = parent.getFileName().toString();
+        if (!folder.startsWith("dim%")) return fallback;
+        return switch (folder.substring(4)) {
+            case "0" -> "minecraft:overworld";
+            case "-1" -> "minecraft:the_nether";
+            case "1" -> "minecraft:the_end";
+            default -> folder.substring(4).replace('$', ':');
+        };
+    }
+
+    // ---- VoxelMap: name:Home,x:1,z:2,y:3,enabled:true,...,dimensions:overworld#the_nether#
+    // with ',' and ':' in names written as "~comma~" and "~colon~"
+
+    static List<Waypoint> parseVoxelMap(String line, String server, String fallbackDimension, long now) {
+        if (!line.startsWith("name:")) return List.of();
+        String name = null;
+        String dimensions = null;
+        Double x = null, y = null, z = null;
+        try {
+            for (String field : line.split(",")) {
+                int colon = field.indexOf(':');
+                if (colon < 0) continue;
+                String key = field.substring(0, colon);
+                String value = field.substring(colon + 1);
+                switch (key) {
+                    case "name" -> name = value.replace("~comma~", ",").replace("~colon~", ":");
+                    case "x" -> x = Integer.parseInt(value) + 0.5;
+                    case "y" -> y = Integer.parseInt(value) + 0.5;
+                    case "z" -> z = Integer.parseInt(value) + 0.5;
+                    case "dimensions" -> dimensions = value;
+                    default -> {}
+                }
+            }
+        } catch (NumberFormatException e) {
+            return List.of();
+        }
+        if (name == null || name.isBlank() || x == null || z == null) return List.of();
+        if (y == null) y = 64.5;
+
+        if (dimensions == null || dimensions.isEmpty()) {
+            return List.of(new Waypoint(name, server, fallbackDimension, x, y, z, now));
+        }
+        List<Waypoint> result = new ArrayList<>(1);
+        for (String dim : dimensions.split("#")) {
+            if (dim.isEmpty()) continue;
+            result.add(new Waypoint(name, server, dim.contains(":") ? dim : "minecraft:" + dim, x, y, z, now));
+        }
+        return result;
+    }
+
+    static String formatVoxelMap(Waypoint w) {
+        String name = w.getName().replace(",", "~comma~").replace(":", "~colon~");
+        String dim = w.getDimension().startsWith("minecraft:") ? w.getDimension().substring("minecraft:".length()) : w.getDimension();
+        return "name:" + name + ",x:" + (int) Math.floor(w.getX()) + ",z:" + (int) Math.floor(w.getZ())
+                + ",y:" + (int) Math.floor(w.getY()) + ",enabled:true,red:1.0,green:1.0,blue:1.0,suffix:,world:,dimensions:" + dim + "#";
+    }
+
+    // ---- Share codes: "wy1:" + unpadded base64url of [UTF name][UTF dimension][int x][int y][int z]
+
+    public static String encodeShareCode(Waypoint w) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(w.getName());
+            out.writeUTF(w.getDimension());
+            out.writeInt((int) Math.floor(w.getX()));
+            out.writeInt((int) Math.floor(w.getY()));
+            out.writeInt((int) Math.floor(w.getZ()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return SHARE_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /** Decodes a share code into a waypoint for {@code server}, or returns null if the code is not valid. */
+    public static Waypoint decodeShareCode(String code, String server) {
+        code = code.trim();
+        if (!code.startsWith(SHARE_PREFIX)) return null;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                Base64.getUrlDecoder().decode(code.substring(SHARE_PREFIX.length()))))) {
+            String name = in.readUTF();
+            String dimension = in.readUTF();
+            double x = in.readInt() + 0.5;
+            double y = in.readInt() + 0.5;
+            double z = in.readInt() + 0.5;
+            if (name.isBlank()) return null;
+            return new Waypoint(name, server, dimension, x, y, z, System.currentTimeMillis());
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void report(MinecraftClient client, String message) {
+        client.execute(() -> {
+            if (client.player != null) client.player.sendMessage(Text.literal(message), false);
+        });
+    }
+}
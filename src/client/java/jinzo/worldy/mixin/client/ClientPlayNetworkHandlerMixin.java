@@ -0,0 +1,60 @@
+package jinzo.worldy.mixin.client;
+
+import jinzo.worldy.client.utils.PathfindingManager;
+import jinzo.worldy.client.utils.PerfMonitor;
+import jinzo.worldy.client.utils.PlayerRoster;
+import jinzo.worldy.client.utils.WaypointManager;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.network.packet.s2c.play.BlockUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.DeathMessageS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerListS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerRemoveS2CPacket;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientPlayNetworkHandler.class)
+public abstract class ClientPlayNetworkHandlerMixin {
+
+    // Both handlers bounce to the client thread before doing any work, so TAIL only runs there.
+    @Inject(method = "onPlayerList", at = @At("TAIL"))
+    private void worldy$onPlayerList(PlayerListS2CPacket packet, CallbackInfo ci) {
+        if (packet.getPlayerAdditionEntries().isEmpty()) return;
+        PerfMonitor.time("roster", () -> {
+            for (PlayerListS2CPacket.Entry entry : packet.getPlayerAdditionEntries()) {
+                if (entry.profile() == null) continue;
+                PlayerRoster.handleAdded(entry.profileId(), entry.profile().getName());
+            }
+            PlayerRoster.publish();
+        });
+    }
+
+    @Inject(method = "onPlayerRemove", at = @At("TAIL"))
+    private void worldy$onPlayerRemove(PlayerRemoveS2CPacket packet, CallbackInfo ci) {
+        PerfMonitor.time("roster", () -> {
+            PlayerRoster.handleRemoved(packet.profileIds());
+            PlayerRoster.publish();
+        });
+    }
+
+    @Inject(method = "onBlockUpdate", at = @At("TAIL"))
+    private void worldy$onBlockUpdate(BlockUpdateS2CPacket packet, CallbackInfo ci) {
+        PathfindingManager.onBlockChanged(packet.getPos().getX(), packet.getPos().getZ());
+    }
+
+    @Inject(method = "onChunkDeltaUpdate", at = @At("TAIL"))
+    private void worldy$onChunkDeltaUpdate(ChunkDeltaUpdateS2CPacket packet, CallbackInfo ci) {
+        packet.visitUpdates((pos, state) -> PathfindingManager.onBlockChanged(pos.getX(), pos.getZ()));
+    }
+
+    // Sent once per player death, before any respawn, so the local player still stands where they died
+    @Inject(method = "onDeathMessage", at = @At("TAIL"))
+    private void worldy$onDeathMessage(DeathMessageS2CPacket packet, CallbackInfo ci) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null || packet.playerId() != client.player.getId()) return;
+        WaypointManager.recordDeath(client, client.player.getPos(), packet.message().getString());
+    }
+}
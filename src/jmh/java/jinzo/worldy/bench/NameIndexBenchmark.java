@@ -0,0 +1,93 @@
+package jinzo.worldy.bench;
+
+import jinzo.worldy.client.utils.NameIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** Name search behind /stafflist find and /who, and the incremental updates fed by roster changes. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameIndexBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "ka", "zu", "mi", "ro", "dex", "sky", "nor", "vel", "tin", "qua", "bee", "lox", "ar", "en", "ox", "x_"
+    };
+
+    @Param({"10", "500", "5000"})
+    public int players;
+
+    private NameIndex index;
+    private UUID[] uuids;
+    private String[] names;
+    private String prefixQuery;
+    private String substringQuery;
+    private String typoQuery;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        index = new NameIndex();
+        uuids = new UUID[players];
+        names = new String[players];
+        for (int i = 0; i < players; i++) {
+            StringBuilder name = new StringBuilder();
+            int parts = 3 + random.nextInt(3);
+            for (int p = 0; p < parts; p++) name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            if (random.nextBoolean()) name.append(random.nextInt(100));
+            uuids[i] = new UUID(random.nextLong(), random.nextLong());
+            names[i] = name.toString();
+            index.put(uuids[i], names[i]);
+        }
+
+        String sample = names[players / 2];
+        prefixQuery = sample.substring(0, 4);
+        substringQuery = sample.substring(2, 6);
+        // Swap two letters in the middle of a real name
+        char[] typo = sample.toCharArray();
+        char c = typo[3];
+        typo[3] = typo[4];
+        typo[4] = c;
+        typoQuery = new String(typo);
+    }
+
+    @Benchmark
+    public List<NameIndex.Match> searchPrefix() {
+        return index.search(prefixQuery, 10);
+    }
+
+    @Benchmark
+    public List<NameIndex.Match> searchSubstring() {
+        return index.search(substringQuery, 10);
+    }
+
+    // No syllable starts with "ne", so every match comes from the scan for short substrings
+    @Benchmark
+    public List<NameIndex.Match> searchShortQuery() {
+        return index.search("ne", 10);
+    }
+
+    @Benchmark
+    public List<NameIndex.Match> searchTypo() {
+        return index.search(typoQuery, 10);
+    }
+
+    /** One join and one leave, as the roster delivers them: the entry is removed and added back under a new name. */
+    @Benchmark
+    public int renameAndRestore() {
+        int i = next;
+        next = (next + 1) % players;
+        index.remove(uuids[i]);
+        index.put(uuids[i], names[i] + "x");
+        index.put(uuids[i], names[i]);
+        return index.size();
+    }
+}
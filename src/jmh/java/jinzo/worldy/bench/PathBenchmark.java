@@ -0,0 +1,56 @@
+package jinzo.worldy.bench;
+
+import jinzo.worldy.client.utils.ChunkSnapshot;
+import jinzo.worldy.client.utils.PathGeometry;
+import jinzo.worldy.client.utils.PathPlanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Trail geometry generation for the waypoint renderer, and route planning over a synthetic flat world. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathBenchmark {
+
+    @Param({"10", "40", "256"})
+    public int pathLength;
+
+    private double[] route;
+
+    // Ground at y = 63 with a wall every 16 blocks that has a gap at z = 8
+    private static final PathPlanner.CellSource FLAT_WORLD = (x, y, z) -> {
+        if (y < 64) return ChunkSnapshot.SOLID;
+        if (y < 66 && Math.floorMod(x, 16) == 0 && Math.floorMod(z, 16) != 8) return ChunkSnapshot.SOLID;
+        return ChunkSnapshot.OPEN;
+    };
+
+    @Setup
+    public void setup() {
+        route = new double[pathLength * 2 * 3];
+        for (int i = 0; i < pathLength * 2; i++) {
+            route[i * 3] = i + 0.5;
+            route[i * 3 + 1] = 64.3;
+            route[i * 3 + 2] = (i / 8) + 0.5;
+        }
+    }
+
+    @Benchmark
+    public double[] straightLine() {
+        return PathGeometry.straightLine(0.5, 64.3, 0.5, 300.5, 70.5, 120.5, pathLength, 1.0);
+    }
+
+    @Benchmark
+    public double[] alongRoute() {
+        return PathGeometry.alongRoute(0.2, 64.3, 0.4, route, 0, pathLength);
+    }
+
+    @Benchmark
+    public PathPlanner.Result planAcrossWalls() {
+        return PathPlanner.plan(FLAT_WORLD, 1, 64, 1, pathLength, 64, pathLength / 2,
+                40_000, TimeUnit.MILLISECONDS.toNanos(30));
+    }
+}
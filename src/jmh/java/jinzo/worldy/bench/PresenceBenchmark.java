@@ -0,0 +1,70 @@
+package jinzo.worldy.bench;
+
+import jinzo.worldy.client.utils.PlayerRoster;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Online checks for a /stafflist render: the old name scan over the whole tab list, three times per staff member,
+ * versus a UUID lookup in {@link PlayerRoster}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PresenceBenchmark {
+
+    private static final int STAFF_COUNT = 40;
+
+    @Param({"10", "100", "1000", "5000"})
+    public int playerCount;
+
+    private List<String> tabNames;
+    private List<UUID> staffIds;
+    private List<String> staffNames;
+
+    @Setup
+    public void setup() {
+        tabNames = new ArrayList<>(playerCount);
+        PlayerRoster.clear();
+        for (int i = 0; i < playerCount; i++) {
+            tabNames.add("Player" + i);
+            PlayerRoster.handleAdded(new UUID(0, i), "Player" + i);
+        }
+
+        // Every other staff member is online
+        staffIds = new ArrayList<>(STAFF_COUNT);
+        staffNames = new ArrayList<>(STAFF_COUNT);
+        for (int i = 0; i < STAFF_COUNT; i++) {
+            int id = (i & 1) == 0 ? i * (playerCount / STAFF_COUNT + 1) % Math.max(1, playerCount) : playerCount + i;
+            staffIds.add(new UUID(0, id));
+            staffNames.add("Player" + id);
+        }
+    }
+
+    @Benchmark
+    public int nameScan() {
+        int online = 0;
+        for (int pass = 0; pass < 3; pass++) {
+            for (String name : staffNames) {
+                if (tabNames.stream().anyMatch(n -> n.equals(name))) online++;
+            }
+        }
+        return online;
+    }
+
+    @Benchmark
+    public int uuidIndex() {
+        int online = 0;
+        for (UUID id : staffIds) {
+            if (PlayerRoster.isOnline(id)) online++;
+        }
+        return online;
+    }
+}
@@ -0,0 +1,63 @@
+package jinzo.worldy.bench;
+
+import jinzo.worldy.client.utils.PlayerRoster;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one client tick of join/leave tracking: the old per-tick rebuild-and-diff of tab-list names versus the
+ * packet-driven {@link PlayerRoster} delta.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RosterBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    public int playerCount;
+
+    private List<String> tabList;
+    private Set<String> previousPlayers;
+    private UUID churnId;
+
+    @Setup
+    public void setup() {
+        tabList = new ArrayList<>(playerCount);
+        previousPlayers = new HashSet<>();
+        PlayerRoster.clear();
+        for (int i = 0; i < playerCount; i++) {
+            String name = "Player" + i;
+            tabList.add(name);
+            previousPlayers.add(name);
+            PlayerRoster.handleAdded(new UUID(0, i), name);
+        }
+        churnId = new UUID(1, 1);
+    }
+
+    /** What WorldyClient used to do every tick, even when nobody joined or left. */
+    @Benchmark
+    public void rebuildAndDiff(Blackhole bh) {
+        Set<String> currentPlayers = new HashSet<>();
+        for (String name : tabList) currentPlayers.add(name);
+
+        for (String playerName : previousPlayers) {
+            if (!currentPlayers.contains(playerName)) bh.consume(playerName);
+        }
+
+        previousPlayers.clear();
+        previousPlayers.addAll(currentPlayers);
+    }
+
+    /** A tick where nobody joins or leaves costs nothing with the roster; this measures one join plus one leave. */
+    @Benchmark
+    public void packetDelta() {
+        PlayerRoster.handleAdded(churnId, "Churn");
+        PlayerRoster.handleRemoved(List.of(churnId));
+    }
+}
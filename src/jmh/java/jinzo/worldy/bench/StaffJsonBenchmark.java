@@ -0,0 +1,48 @@
+package jinzo.worldy.bench;
+
+import jinzo.worldy.client.utils.StaffJsonParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StaffJsonBenchmark {
+
+    private static final String[] ROLES = {"owners", "developers", "moderators", "helpers"};
+
+    @Param({"10", "100", "1000", "5000"})
+    public int playerCount;
+
+    private String json;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("{\n");
+        for (int r = 0; r < ROLES.length; r++) {
+            sb.append("  \"").append(ROLES[r]).append("\": [\n");
+            int perRole = playerCount / ROLES.length + (r < playerCount % ROLES.length ? 1 : 0);
+            for (int i = 0; i < perRole; i++) {
+                UUID id = new UUID(r, i);
+                // Mix dashed and undashed forms like the real file may contain
+                String text = (i & 1) == 0 ? id.toString() : id.toString().replace("-", "");
+                sb.append("    \"").append(text).append('"').append(i + 1 < perRole ? ",\n" : "\n");
+            }
+            sb.append(r + 1 < ROLES.length ? "  ],\n" : "  ]\n");
+        }
+        json = sb.append("}\n").toString();
+    }
+
+    @Benchmark
+    public Map<String, List<UUID>> parse() {
+        return StaffJsonParser.parse(new StringReader(json));
+    }
+}
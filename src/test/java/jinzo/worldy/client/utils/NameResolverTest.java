@@ -0,0 +1,170 @@
+package jinzo.worldy.client.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs {@link NameResolver} against a local stub of the sessionserver profile endpoint. */
+class NameResolverTest {
+
+    private interface Responder {
+        void respond(HttpExchange exchange, String uuid) throws Exception;
+    }
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private String profileUrl;
+    private volatile Responder responder;
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/profile/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            try {
+                responder.respond(exchange, path.substring(path.lastIndexOf('/') + 1));
+            } catch (Exception e) {
+                // Interrupted or the client went away
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        profileUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/profile/";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void concurrencyNeverExceedsCap() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        responder = (exchange, uuid) -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            ok(exchange, uuid);
+        };
+
+        List<UUID> uuids = uuids(40);
+        NameResolver resolver = new NameResolver(http, profileUrl, 4, new TokenBucket(1000, 1000));
+        NameResolver.Result result = resolver.resolveAll(uuids);
+
+        assertEquals(40, result.names().size());
+        assertTrue(peak.get() <= 4, "peak in-flight " + peak.get());
+        assertTrue(peak.get() > 1, "lookups did not overlap");
+    }
+
+    @Test
+    void tokenBucketLimitsRate() throws Exception {
+        List<Long> arrivals = Collections.synchronizedList(new ArrayList<>());
+        responder = (exchange, uuid) -> {
+            arrivals.add(System.nanoTime());
+            ok(exchange, uuid);
+        };
+
+        // Burst of 5, then 20 per second: 25 lookups need at least a second
+        long start = System.nanoTime();
+        NameResolver resolver = new NameResolver(http, profileUrl, 25, new TokenBucket(5, 20));
+        NameResolver.Result result = resolver.resolveAll(uuids(25));
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(25, result.names().size());
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(950), "finished in " + elapsed / 1_000_000 + "ms");
+
+        // No half-second window may see more than the burst plus half a second of refill
+        List<Long> sorted = new ArrayList<>(arrivals);
+        Collections.sort(sorted);
+        for (int i = 0, j = 0; i < sorted.size(); i++) {
+            while (sorted.get(i) - sorted.get(j) > TimeUnit.MILLISECONDS.toNanos(500)) j++;
+            assertTrue(i - j + 1 <= 5 + 10 + 1, "too many requests in 500ms: " + (i - j + 1));
+        }
+    }
+
+    @Test
+    void statusCodesMapToNamesAndNotFound() throws Exception {
+        UUID found = new UUID(0, 1);
+        UUID noContent = new UUID(0, 2);
+        UUID missing = new UUID(0, 3);
+        UUID broken = new UUID(0, 4);
+        responder = (exchange, uuid) -> {
+            if (uuid.equals(compact(found))) ok(exchange, uuid);
+            else if (uuid.equals(compact(noContent))) exchange.sendResponseHeaders(204, -1);
+            else if (uuid.equals(compact(missing))) exchange.sendResponseHeaders(404, -1);
+            else exchange.sendResponseHeaders(500, -1);
+        };
+
+        NameResolver resolver = new NameResolver(http, profileUrl, 4, new TokenBucket(100, 100));
+        NameResolver.Result result = resolver.resolveAll(List.of(found, noContent, missing, broken));
+
+        assertEquals(Map.of(found, "p" + compact(found).substring(24)), result.names());
+        assertEquals(Set.of(noContent, missing), result.notFound());
+    }
+
+    @Test
+    void interruptAbortsLookupsInFlight() throws Exception {
+        responder = (exchange, uuid) -> {
+            Thread.sleep(10_000);
+            ok(exchange, uuid);
+        };
+
+        NameResolver resolver = new NameResolver(http, profileUrl, 2, new TokenBucket(100, 100));
+        Thread caller = new Thread(() -> {
+            try {
+                resolver.resolveAll(uuids(10));
+            } catch (InterruptedException ignored) {
+            }
+        });
+        caller.start();
+        Thread.sleep(300);
+        caller.interrupt();
+        caller.join(3_000);
+
+        assertFalse(caller.isAlive(), "resolveAll kept waiting for cancelled lookups");
+    }
+
+    private static void ok(HttpExchange exchange, String uuid) throws IOException {
+        byte[] body = ("{\"id\":\"" + uuid + "\",\"name\":\"p" + uuid.substring(24) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String compact(UUID uuid) {
+        return uuid.toString().replace("-", "");
+    }
+
+    private static List<UUID> uuids(int count) {
+        List<UUID> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) result.add(new UUID(42, i));
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+package jinzo.worldy.client.utils;
+
+import jinzo.worldy.client.Models.Waypoint;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Parsers, writers and share codes of {@link WaypointTransfer}; none of them need a running client. */
+class WaypointTransferTest {
+
+    private static final String SERVER = "play.example.net";
+    private static final String OVERWORLD = "minecraft:overworld";
+
+    @Test
+    void parsesXaeroLine() {
+        List<Waypoint> parsed = WaypointTransfer.parseXaero(
+                "waypoint:Base§§North:B:120:64:-340:6:false:0:gui.xaero_default:false:0:0:false", SERVER, OVERWORLD, 1L);
+
+        assertEquals(1, parsed.size());
+        Waypoint w = parsed.get(0);
+        assertEquals("Base:North", w.getName());
+        assertEquals(SERVER, w.getServer());
+        assertEquals(OVERWORLD, w.getDimension());
+        assertEquals(120.5, w.getX());
+        assertEquals(64.5, w.getY());
+        assertEquals(-339.5, w.getZ());
+    }
+
+    @Test
+    void xaeroUnknownHeightAndJunkLines() {
+        assertEquals(64.5, WaypointTransfer.parseXaero("waypoint:Cave:C:1:~:2:0:false:0:set", SERVER, OVERWORLD, 1L).get(0).getY());
+        assertTrue(WaypointTransfer.parseXaero("#waypoint:name:initials:x:y:z", SERVER, OVERWORLD, 1L).isEmpty());
+        assertTrue(WaypointTransfer.parseXaero("sets:gui.xaero_default", SERVER, OVERWORLD, 1L).isEmpty());
+        assertTrue(WaypointTransfer.parseXaero("waypoint:Bad:B:x:1:2", SERVER, OVERWORLD, 1L).isEmpty());
+        assertTrue(WaypointTransfer.parseXaero("waypoint::B:1:2:3", SERVER, OVERWORLD, 1L).isEmpty());
+        assertTrue(WaypointTransfer.parseXaero("waypoint:Short:S:1", SERVER, OVERWORLD, 1L).isEmpty());
+    }
+
+    @Test
+    void xaeroDimensionFromFolder() {
+        assertEquals(OVERWORLD, WaypointTransfer.xaeroDimensionOf(Path.of("world", "dim%0", "mw$default_1.txt"), "x"));
+        assertEquals("minecraft:the_nether", WaypointTransfer.xaeroDimensionOf(Path.of("world", "dim%-1", "a.txt"), "x"));
+        assertEquals("minecraft:the_end", WaypointTransfer.xaeroDimensionOf(Path.of("world", "dim%1", "a.txt"), "x"));
+        assertEquals("custom:moon", WaypointTransfer.xaeroDimensionOf(Path.of("world", "dim%custom$moon", "a.txt"), "x"));
+        assertEquals("fallback", WaypointTransfer.xaeroDimensionOf(Path.of("exports", "a.txt"), "fallback"));
+        assertEquals("fallback", WaypointTransfer.xaeroDimensionOf(Path.of("a.txt"), "fallback"));
+    }
+
+    @Test
+    void parsesVoxelMapLineIntoEveryDimension() {
+        List<Waypoint> parsed = WaypointTransfer.parseVoxelMap(
+                "name:Shop~comma~ east~colon~ 2,x:10,z:-20,y:70,enabled:true,red:1.0,green:0.0,blue:0.0,suffix:,world:,dimensions:overworld#the_nether#",
+                SERVER, "minecraft:the_end", 1L);
+
+        assertEquals(2, parsed.size());
+        assertEquals("Shop, east: 2", parsed.get(0).getName());
+        assertEquals(OVERWORLD, parsed.get(0).getDimension());
+        assertEquals("minecraft:the_nether", parsed.get(1).getDimension());
+        assertEquals(10.5, parsed.get(0).getX());
+        assertEquals(70.5, parsed.get(0).getY());
+        assertEquals(-19.5, parsed.get(0).getZ());
+    }
+
+    @Test
+    void voxelMapDefaultsAndJunkLines() {
+        List<Waypoint> parsed = WaypointTransfer.parseVoxelMap("name:Farm,x:1,z:2", SERVER, OVERWORLD, 1L);
+        assertEquals(1, parsed.size());
+        assertEquals(OVERWORLD, parsed.get(0).getDimension());
+        assertEquals(64.5, parsed.get(0).getY());
+
+        assertTrue(WaypointTransfer.parseVoxelMap("subworlds:", SERVER, OVERWORLD, 1L).isEmpty());
+        assertTrue(WaypointTransfer.parseVoxelMap("name:NoZ,x:1,y:2", SERVER, OVERWORLD, 1L).isEmpty());
+        assertTrue(WaypointTransfer.parseVoxelMap("name:Bad,x:one,z:2", SERVER, OVERWORLD, 1L).isEmpty());
+    }
+
+    @Test
+    void formatsRoundTrip() {
+        Waypoint original = new Waypoint("Spawn: main, west", SERVER, "minecraft:the_nether", -100.5, 72.5, 2048.5, 1L);
+
+        Waypoint xaero = WaypointTransfer.parseXaero(WaypointTransfer.formatXaero(original), SERVER, "minecraft:the_nether", 1L).get(0);
+        assertSameWaypoint(original, xaero);
+
+        List<Waypoint> voxel = WaypointTransfer.parseVoxelMap(WaypointTransfer.formatVoxelMap(original), SERVER, OVERWORLD, 1L);
+        assertEquals(1, voxel.size());
+        assertSameWaypoint(original, voxel.get(0));
+    }
+
+    @Test
+    void shareCodeRoundTrip() {
+        Waypoint original = new Waypoint("Ünïcode base ✓", "other.server", "minecraft:the_end", -30000000.5, -64.5, 29999999.5, 1L);
+
+        String code = WaypointTransfer.encodeShareCode(original);
+        assertTrue(code.startsWith(WaypointTransfer.SHARE_PREFIX));
+        assertTrue(code.matches("[A-Za-z0-9_:-]+"), "not chat-safe: " + code);
+
+        Waypoint decoded = WaypointTransfer.decodeShareCode("  " + code + " ", SERVER);
+        assertNotNull(decoded);
+        assertEquals(SERVER, decoded.getServer());
+        assertSameWaypoint(original, decoded);
+    }
+
+    @Test
+    void rejectsInvalidShareCodes() {
+        assertNull(WaypointTransfer.decodeShareCode("", SERVER));
+        assertNull(WaypointTransfer.decodeShareCode("wy2:AAAA", SERVER));
+        assertNull(WaypointTransfer.decodeShareCode("wy1:not base64!", SERVER));
+        assertNull(WaypointTransfer.decodeShareCode("wy1:AAE", SERVER));
+
+        String code = WaypointTransfer.encodeShareCode(new Waypoint("Home", SERVER, OVERWORLD, 1, 2, 3, 1L));
+        assertNull(WaypointTransfer.decodeShareCode(code.substring(0, code.length() - 4), SERVER));
+    }
+
+    private static void assertSameWaypoint(Waypoint expected, Waypoint actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDimension(), actual.getDimension());
+        assertEquals(expected.getX(), actual.getX());
+        assertEquals(expected.getY(), actual.getY());
+        assertEquals(expected.getZ(), actual.getZ());
+    }
+}